@@ -3,13 +3,16 @@ import entity.ProjectTemplate;
 import entity.RemindersTemplate;
 import entity.Template;
 import gateway.TemplateGateway;
+import use_case.IdAllocator;
 import use_case.TemplateManager;
 
 /**
- * Creates template config file.
+ * Creates template config file. The default templates replace any stored templates, so their ids start from 1.
  */
 public class CreateTemplateConfigs {
     public static void main(String[] args) {
+        IdAllocator idAllocator = new IdAllocator();
+
         // Create a daily template
         String dailyTemplateName = "Default Daily Template";
         String dailyPlannerNamePrompt = "What is the name of the planner that will be created from this Daily Template?";
@@ -19,8 +22,8 @@ public class CreateTemplateConfigs {
                 "Enter in the form of hh:00 in 24-hour clock (e.g., 21:00 means 9pm)";
         String timeIncrementPrompt = "What is the time increment of the planner (in hour)? Enter an integer. " +
                 "(e.g., if it's 1 hour, enter 1)";
-        Template dailyTemplate = new DailyTemplate(dailyTemplateName, dailyPlannerNamePrompt, startTimePrompt,
-                endTimePrompt, timeIncrementPrompt);
+        Template dailyTemplate = new DailyTemplate(idAllocator.nextId(), dailyTemplateName, dailyPlannerNamePrompt,
+                startTimePrompt, endTimePrompt, timeIncrementPrompt);
         dailyTemplate.setPublishedStatus(true);
 
         // Create a project template
@@ -29,8 +32,8 @@ public class CreateTemplateConfigs {
         String firstStatusPrompt = "Enter the column name for the first status column of the planner (e.g., \"TODO\")";
         String secondStatusPrompt = "Enter the column name for the second status column of the planner (e.g., \"DOING\")";
         String thirdStatusPrompt = "Enter the column name for the third status column of the planner (e.g., \"DONE\")";
-        Template projectTemplate = new ProjectTemplate(projectTemplateName, projectPlannerNamePrompt,
-                firstStatusPrompt, secondStatusPrompt, thirdStatusPrompt);
+        Template projectTemplate = new ProjectTemplate(idAllocator.nextId(), projectTemplateName,
+                projectPlannerNamePrompt, firstStatusPrompt, secondStatusPrompt, thirdStatusPrompt);
         projectTemplate.setPublishedStatus(true);
 
         String remindersTemplateName = "Default Reminders Template";
@@ -41,8 +44,8 @@ public class CreateTemplateConfigs {
                 "(e.g., \"Deadline\", \"Due Date\", etc.)";
         String completionStatusHeadingPrompt = "Enter the column name for the column containing completion status in the planner </br>" +
                 "(e.g., \"Completion Status\", \"Completed?\", etc.)";
-        Template remindersTemplate = new RemindersTemplate(remindersTemplateName, remindersPlannerNamePrompt,
-                taskHeadingPrompt, dateHeadingPrompt, completionStatusHeadingPrompt);
+        Template remindersTemplate = new RemindersTemplate(idAllocator.nextId(), remindersTemplateName,
+                remindersPlannerNamePrompt, taskHeadingPrompt, dateHeadingPrompt, completionStatusHeadingPrompt);
         remindersTemplate.setPublishedStatus(true);
 
         // Add templates to TemplateManager
@@ -0,0 +1,92 @@
+import use_case.FriendGraph;
+
+import java.util.Random;
+
+/**
+ * Times the friend graph queries on a generated graph of a million accounts, without touching any stored data. Every
+ * account befriends ten random accounts, and two hub accounts have five thousand friends each among the first twenty
+ * thousand accounts, so the queries are timed on both ordinary and very popular accounts.
+ * Usage: FriendGraphBenchmark [number of accounts] [number of rounds]
+ */
+public class FriendGraphBenchmark {
+    private static final int FRIENDS_PER_ACCOUNT = 10;
+    private static final int HUB_FRIENDS = 5000;
+    private static final int HUB_A = 17;
+    private static final int HUB_B = 42;
+
+    public static void main(String[] args) {
+        int numAccounts = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Random random = new Random(7);
+
+        FriendGraph graph = new FriendGraph();
+        long start = System.nanoTime();
+        for (int id = 1; id <= numAccounts; id++) {
+            for (int i = 0; i < FRIENDS_PER_ACCOUNT; i++) {
+                graph.addFriendship(id, 1 + random.nextInt(numAccounts));
+            }
+        }
+        int hubCircle = Math.min(numAccounts, 20_000);
+        for (int i = 0; i < HUB_FRIENDS; i++) {
+            graph.addFriendship(HUB_A, 1 + random.nextInt(hubCircle));
+            graph.addFriendship(HUB_B, 1 + random.nextInt(hubCircle));
+        }
+        System.out.printf("Built a graph of %d accounts in %.0f ms, hubs have %d and %d friends.%n", numAccounts,
+                millisSince(start), graph.numFriends(HUB_A), graph.numFriends(HUB_B));
+
+        // Later rounds show the times once the JIT has compiled the queries.
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("Round %d:%n", round);
+
+            start = System.nanoTime();
+            int mutual = 0;
+            for (int i = 0; i < 1000; i++) {
+                mutual = graph.numMutualFriends(HUB_A, HUB_B);
+            }
+            System.out.printf("  mutual friends of the hubs: %.4f ms (%d friends)%n", millisSince(start) / 1000,
+                    mutual);
+
+            start = System.nanoTime();
+            long totalMutual = 0;
+            for (int id = 1; id <= 10_000; id++) {
+                totalMutual += graph.numMutualFriends(id, id % numAccounts + 1);
+            }
+            System.out.printf("  mutual friends of two accounts: %.4f ms (%d friends in total)%n",
+                    millisSince(start) / 10_000, totalMutual);
+
+            start = System.nanoTime();
+            int withinHops = 0;
+            for (int id = 1; id <= 10_000; id++) {
+                if (graph.isWithinHops(id, numAccounts - id % numAccounts, 2)) {
+                    withinHops++;
+                }
+            }
+            System.out.printf("  2-hop check: %.4f ms (%d of 10000 within 2 hops)%n", millisSince(start) / 10_000,
+                    withinHops);
+
+            start = System.nanoTime();
+            long neighbours = 0;
+            for (int id = 1; id <= 1000; id++) {
+                neighbours += graph.getNeighbourhood(id, 2).length;
+            }
+            System.out.printf("  2-hop neighbourhood: %.3f ms (%d accounts on average)%n", millisSince(start) / 1000,
+                    neighbours / 1000);
+
+            start = System.nanoTime();
+            for (int i = 0; i < 20; i++) {
+                graph.suggestFriends(HUB_A, 10, candidate -> true);
+            }
+            System.out.printf("  suggestions for a hub: %.2f ms%n", millisSince(start) / 20);
+
+            start = System.nanoTime();
+            for (int id = 1; id <= 1000; id++) {
+                graph.suggestFriends(id, 10, candidate -> true);
+            }
+            System.out.printf("  suggestions for an account: %.3f ms%n", millisSince(start) / 1000);
+        }
+    }
+
+    private static double millisSince(long start) {
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
@@ -0,0 +1,98 @@
+import use_case.IntObjectMap;
+
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Times put and get of an IntObjectMap against a HashMap with Integer keys, at ten thousand up to ten million keys,
+ * without touching any stored data. The keys are dense IDs, like the IDs of planners, put and looked up in a random
+ * order, and every key maps to the same value, so only the maps themselves are timed.
+ * Usage: IntObjectMapBenchmark [largest number of keys] [number of rounds]
+ */
+public class IntObjectMapBenchmark {
+    private static final Object VALUE = new Object();
+
+    public static void main(String[] args) {
+        int maxKeys = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        // Later rounds show the times once the JIT has compiled the maps.
+        for (int round = 1; round <= rounds; round++) {
+            System.out.printf("Round %d:%n", round);
+            for (int numKeys = 10_000; numKeys <= maxKeys; numKeys *= 10) {
+                int[] keys = shuffledKeys(numKeys, new Random(7));
+                timeIntObjectMap(keys);
+                timeHashMap(keys);
+            }
+        }
+    }
+
+    private static void timeIntObjectMap(int[] keys) {
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        IntObjectMap<Object> map = new IntObjectMap<>();
+        for (int key : keys) {
+            map.put(key, VALUE);
+        }
+        double putNanos = nanosSince(start) / keys.length;
+        long heap = usedHeap() - heapBefore;
+
+        start = System.nanoTime();
+        int found = 0;
+        for (int key : keys) {
+            if (map.get(key) != null) {
+                found++;
+            }
+        }
+        double getNanos = nanosSince(start) / keys.length;
+        System.out.printf("  IntObjectMap, %,d keys: put %.1f ns, get %.1f ns (%d found), about %.1f MB%n",
+                keys.length, putNanos, getNanos, found, heap / 1e6);
+    }
+
+    private static void timeHashMap(int[] keys) {
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        HashMap<Integer, Object> map = new HashMap<>();
+        for (int key : keys) {
+            map.put(key, VALUE);
+        }
+        double putNanos = nanosSince(start) / keys.length;
+        long heap = usedHeap() - heapBefore;
+
+        start = System.nanoTime();
+        int found = 0;
+        for (int key : keys) {
+            if (map.get(key) != null) {
+                found++;
+            }
+        }
+        double getNanos = nanosSince(start) / keys.length;
+        System.out.printf("  HashMap,      %,d keys: put %.1f ns, get %.1f ns (%d found), about %.1f MB%n",
+                keys.length, putNanos, getNanos, found, heap / 1e6);
+    }
+
+    private static int[] shuffledKeys(int numKeys, Random random) {
+        int[] keys = new int[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            keys[i] = i + 1;
+        }
+        for (int i = numKeys - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+        return keys;
+    }
+
+    // Only a rough figure, since the garbage collector may not have collected everything.
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double nanosSince(long start) {
+        return (double) (System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,30 @@
+import gateway.AccountGateway;
+import gateway.FriendGraphGateway;
+import gateway.IMigrationListener;
+import gateway.PlannerGateway;
+import gateway.TemplateGateway;
+import use_case.AccountManager;
+import use_case.FriendGraph;
+import use_case.PlannerManager;
+import use_case.TemplateManager;
+
+/**
+ * Upgrades the stored accounts, templates and planners to the current version of their format in one pass, without
+ * loading them into the application. Run this before starting a new version of the application on existing data.
+ */
+public class MigrateDatabase {
+    public static void main(String[] args) {
+        IMigrationListener listener = (filePath, recordsDone, totalRecords) ->
+                System.out.printf("%s: %d/%d records migrated.%n", filePath, recordsDone, totalRecords);
+
+        AccountGateway accountGateway = new AccountGateway(new AccountManager());
+        boolean flag = accountGateway.migrate(listener);
+        // Older versions kept the friendships in the accounts.
+        flag = new FriendGraphGateway(new FriendGraph(), new AccountManager())
+                .migrate(accountGateway.takeLegacyFriendIds()) && flag;
+        flag = new TemplateGateway(new TemplateManager()).migrate(listener) && flag;
+        flag = new PlannerGateway(new PlannerManager()).migrate(listener) && flag;
+
+        System.out.println(flag ? "Migration finished." : "Migration finished with errors, see above.");
+    }
+}
@@ -1,7 +1,10 @@
 package controller;
 
 import entity.Account;
+import entity.IntSet;
 import gateway.AccountGateway;
+import gateway.FriendGraphGateway;
+import gateway.WriteBehindService;
 import use_case.*;
 
 import java.time.LocalDateTime;
@@ -11,8 +14,18 @@ import java.util.List;
  * Account accessibility controller.
  */
 public class AccessController{
+    /**
+     * The largest number of friendships between the owner of a friends-only planner and the users who may see it.
+     */
+    public static final int FRIENDS_ONLY_HOPS = 2;
+    /**
+     * The largest number of events kept in the activity feed of a user.
+     */
+    public static final int FEED_SIZE = 50;
+
     private final AccountManager accManager;
     private final AccountGateway accGateway;
+    private final FriendGraphGateway friendGateway;
 
     private TemplateController templateController;
     private PlannerController plannerController;
@@ -20,18 +33,36 @@ public class AccessController{
     private final PasswordCalculator passwordCalculator = new PasswordCalculator();
     private final AccountPlannerOptionManager accPlanner;
     private final AccountFriendManager accFriendManager;
+    private final PlannerVisibilityManager visibility;
+    private final ActivityFeedManager activityFeed;
+
+    private WriteBehindService writeBehind;
 
     private String currUserId;
 
     /**
-     * Constructs an AccessController.
+     * Constructs an AccessController. Call load before using it.
      */
     public AccessController(){
         accManager = new AccountManager();
         accGateway = new AccountGateway(accManager);
         this.accPlanner = new AccountPlannerOptionManager(accManager);
-        this.accFriendManager = new AccountFriendManager(accManager);
-        this.accGateway.load();
+        FriendGraph friendGraph = new FriendGraph();
+        this.accFriendManager = new AccountFriendManager(accManager, friendGraph);
+        this.friendGateway = new FriendGraphGateway(friendGraph, accManager);
+        this.visibility = new PlannerVisibilityManager(accManager, accPlanner, friendGraph, FRIENDS_ONLY_HOPS);
+        this.activityFeed = new ActivityFeedManager(accManager, friendGraph, visibility, FEED_SIZE);
+    }
+
+    /**
+     * Loads in the accounts to AccountManager. The friendships are only loaded if the accounts are, since they refer
+     * to the accounts.
+     * @return A boolean value representing whether the loading process is successful.
+     */
+    public boolean load() {
+        boolean flag = this.accGateway.load();
+        this.visibility.clear();
+        return flag && this.friendGateway.load(this.accGateway.takeLegacyFriendIds());
     }
 
     /**
@@ -40,7 +71,16 @@ public class AccessController{
      * @return A boolean value representing whether the loading process is successful or not.
      */
     public boolean save() {
-        return this.accGateway.save();
+        boolean flag = this.accGateway.save();
+        return this.friendGateway.save() && flag;
+    }
+
+    /**
+     * Sets the write-behind service. Once it is set, changes are saved in the background instead of right away.
+     * @param writeBehind A WriteBehindService object.
+     */
+    public void setWriteBehind(WriteBehindService writeBehind) {
+        this.writeBehind = writeBehind;
     }
 
     /**
@@ -78,8 +118,14 @@ public class AccessController{
         accManager.findAccount(retriever).getSuspendedTime().isAfter(LocalDateTime.now())) {
             return false;
         } else if (accManager.findAccount(retriever).getAccountType().equals("temporary")) {
+            Account account = accManager.findAccount(retriever);
             boolean isDeleted = accManager.deleteTempAccount(retriever);
             if (isDeleted){
+                visibility.accountRemoving(account);
+                activityFeed.forgetAccount(account);
+                accPlanner.forgetOwner(account);
+                accFriendManager.forgetAccount(account);
+                this.requestSave(account.getUserId());
                 return false;
             }
         }
@@ -117,7 +163,7 @@ public class AccessController{
         accManager.setPassword(id, passWord);
         accManager.setUserName(id, userName);
         this.currUserId = id;
-        this.save();
+        this.requestSave(id);
         return id;
     }
 
@@ -133,6 +179,7 @@ public class AccessController{
         accManager.setPassword(id, password);
         accManager.setUserName(id, userName);
         this.currUserId = id;
+        this.requestSave(id);
         return id;
     }
 
@@ -167,6 +214,7 @@ public class AccessController{
         }
 
         if (accManager.setPassword(retriever, newPassWord)){
+            this.requestSave(retriever);
             return "changeSuccessful";
         } else {
             return "changeUnsuccessful";
@@ -190,7 +238,11 @@ public class AccessController{
      */
     public boolean updateAndSaveTempPassword(String retriever){
         String tempPassword = this.generateTempPassword();
-        return accManager.setPassword(retriever, tempPassword) && accGateway.saveTempPassword(tempPassword);
+        if (!accManager.setPassword(retriever, tempPassword)) {
+            return false;
+        }
+        this.requestSave(retriever);
+        return accGateway.saveTempPassword(tempPassword);
     }
 
     /**
@@ -200,7 +252,7 @@ public class AccessController{
      */
     public void changeUserName(String retriever, String userName) {
         accManager.setUserName(retriever, userName);
-        this.save();
+        this.requestSave(retriever);
     }
 
     /**
@@ -209,9 +261,12 @@ public class AccessController{
      * @param plannerId A planner id that need to be added to the account.
      * @return A boolean value representing whether the adding is successful or not.
      */
-    public boolean setPlanner(String retriever, String  plannerId){
+    public boolean setPlanner(String retriever, int plannerId){
         boolean flag = this.accPlanner.setPlanners(retriever, plannerId);
-        this.save();
+        if (flag) {
+            this.visibility.ownershipChanged(retriever, plannerId);
+        }
+        this.requestSave(retriever);
         return flag;
     }
 
@@ -239,12 +294,22 @@ public class AccessController{
         return res.toString();
     }
 
+    /**
+     * Return a page of the accounts that are not admin accounts.
+     * @param cursor The cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize The largest number of accounts in the page.
+     * @return The page of the summaries of the accounts.
+     */
+    public Page<AccountSummary> getAccountPage(int cursor, int pageSize) {
+        return this.accManager.getAccountPage(cursor, pageSize, false);
+    }
+
     /**
      *
      * @param retriever A String representing the User ID or Email.
-     * @return A List of Planner that owned by this account.
+     * @return An IntSet of the ids of the planners owned by this account.
      */
-    public List<String> getPlanners(String retriever){
+    public IntSet getPlanners(String retriever){
         return accPlanner.getPlanners(retriever);
     }
 
@@ -257,15 +322,27 @@ public class AccessController{
         return this.accManager.findAccount(retriever).toString();
     }
 
+    /**
+     * Find accounts as the user types, by user ID, username or email.
+     * @param text A String representing what the user has typed so far.
+     * @param limit The largest number of accounts returned.
+     * @return A List of the user IDs of the accounts found, best first.
+     */
+    public List<String> lookUpAccounts(String text, int limit) {
+        return this.accManager.lookUpAccounts(text, limit);
+    }
+
     /**
      * remove planner from the user's planners, add it to the trashcan
      * @param retriever A String representing information of account
      * @param plannerId A String that identifies the planner
      */
     public boolean removePlanner(String retriever, String plannerId) {
-        boolean flag = this.accPlanner.removePlanner(retriever, plannerId);
-        this.save();
-        plannerController.save();
+        boolean flag = this.accPlanner.removePlanner(retriever, parsePlannerId(plannerId));
+        if (flag) {
+            this.visibility.ownershipChanged(retriever, parsePlannerId(plannerId));
+        }
+        this.requestSave(retriever);
         return flag;
     }
 
@@ -276,7 +353,7 @@ public class AccessController{
      */
     public void suspendUser(String retriever, long days){
         accManager.suspendUser(retriever, days);
-        this.save();
+        this.requestSave(retriever);
     }
 
     /**
@@ -285,7 +362,7 @@ public class AccessController{
      */
     public void unSuspendUser(String retriever){
         accManager.unSuspendUser(retriever);
-        this.save();
+        this.requestSave(retriever);
     }
 
     /**
@@ -315,7 +392,12 @@ public class AccessController{
         if (selfId.equals(friendId)) {
             return false;
         } else {
-            return accFriendManager.addFriend(selfId, friendId);
+            visibility.friendshipChanging(selfId, friendId);
+            boolean flag = accFriendManager.addFriend(selfId, friendId);
+            if (flag) {
+                this.requestFriendSave();
+            }
+            return flag;
         }
     }
 
@@ -326,7 +408,43 @@ public class AccessController{
      * @return whether it's successful for 2 users to delete friend
      */
     public boolean deleteFriend(String selfId, String friendId){
-        return accFriendManager.deleteFriend(selfId, friendId);
+        if (accFriendManager.isFriend(selfId, friendId)) {
+            visibility.friendshipChanging(selfId, friendId);
+        }
+        boolean flag = accFriendManager.deleteFriend(selfId, friendId);
+        if (flag) {
+            activityFeed.forgetFriendship(selfId, friendId);
+            this.requestFriendSave();
+        }
+        return flag;
+    }
+
+    /**
+     * return the friends 2 users have in common
+     * @param selfId id of the first user
+     * @param otherId id of the second user
+     * @return List of the ids of the users that are friends of both
+     */
+    public List<String> getMutualFriends(String selfId, String otherId){
+        return accFriendManager.getMutualFriends(selfId, otherId);
+    }
+
+    /**
+     * suggest friends for a user, the friends of their friends with the most mutual friends first
+     * @param selfId id of the user
+     * @param limit the largest number of users suggested
+     * @return List of the ids of the suggested users
+     */
+    public List<String> suggestFriends(String selfId, int limit){
+        return accFriendManager.suggestFriends(selfId, limit);
+    }
+
+    /**
+     * return the engine that decides which planners each user may see
+     * @return the PlannerVisibilityManager of the accounts
+     */
+    public PlannerVisibilityManager getPlannerVisibility(){
+        return visibility;
     }
 
     /**
@@ -339,19 +457,56 @@ public class AccessController{
         StringBuilder strFriends = new StringBuilder();
         strFriends.append("Friend List:\n").append("===============\n");
         for (String i : friends){
-            strFriends.append(getInfo(i)).append("\n");
-            strFriends.append("Available friends' planners:\n");
-            for (String plannerId: this.getPlanners(i)) {
-                if (!plannerController.getPrivacyStatus(Integer.parseInt(plannerId)).equals("private")) {
-                    strFriends.append(plannerController.toString(Integer.parseInt(plannerId)));
-                    strFriends.append("\n");
-                }
-            }
-            strFriends.append("\n\n");
+            strFriends.append(getFriendInfo(selfId, i)).append("\n\n");
         }
         return strFriends.toString();
     }
 
+    /**
+     * return the info of a friend of a user and the friend's planners that the user may see
+     * @param selfId the id of the user
+     * @param friendId the id of the friend
+     * @return String representation of the friend's info and planners, or a message if they are not friends
+     */
+    public String getFriendInfo(String selfId, String friendId){
+        if (!accFriendManager.isFriend(selfId, friendId)) {
+            return "User " + friendId + " is not in your friend list.";
+        }
+        StringBuilder strFriend = new StringBuilder();
+        strFriend.append(getInfo(friendId)).append("\n");
+        strFriend.append("Available friends' planners:\n");
+        this.getPlanners(friendId).forEach(plannerId -> {
+            if (visibility.canSee(selfId, plannerId)) {
+                strFriend.append(plannerController.toString(plannerId));
+                strFriend.append("\n");
+            }
+        });
+        return strFriend.toString();
+    }
+
+    /**
+     * record a change to a planner in the activity feeds of the friends of its owner
+     * @param plannerId the id of the changed planner
+     * @param plannerName the name of the planner
+     * @param change a short description of the change
+     */
+    public void publishPlannerChange(int plannerId, String plannerName, String change){
+        String ownerId = accPlanner.getOwner(plannerId);
+        if (ownerId != null) {
+            activityFeed.publish(ownerId, plannerId, plannerName, change);
+        }
+    }
+
+    /**
+     * return the recent planner changes of the friends of a user that are newer than the ones seen before
+     * @param selfId the id of the user
+     * @param afterSequence the sequence number of the newest change seen before, or 0 for none
+     * @return List of the newer changes, newest first
+     */
+    public List<PlannerEvent> getFriendActivity(String selfId, long afterSequence){
+        return activityFeed.getFeed(selfId, afterSequence);
+    }
+
     /**
      * return the trashed planners of a user
      * @param userId the user id of the user
@@ -359,9 +514,8 @@ public class AccessController{
      */
     public String getTrashPlanner(String userId){
         StringBuilder sb = new StringBuilder();
-        for (String plannerId: accPlanner.getTrashPlanner(userId)) {
-            sb.append(plannerController.toString(Integer.parseInt(plannerId))).append("\n");
-        }
+        accPlanner.getTrashPlanner(userId).forEach(plannerId ->
+                sb.append(plannerController.toString(plannerId)).append("\n"));
         return sb.toString();
     }
 
@@ -372,7 +526,12 @@ public class AccessController{
      * @return whether the removing and adding were successful
      */
     public boolean unTrashPlanner(String userId, String plannerId){
-        return accPlanner.unTrashPlanner(userId, plannerId);
+        boolean flag = accPlanner.unTrashPlanner(userId, parsePlannerId(plannerId));
+        if (flag) {
+            visibility.ownershipChanged(userId, parsePlannerId(plannerId));
+            this.requestSave(userId);
+        }
+        return flag;
     }
 
     /**
@@ -382,6 +541,41 @@ public class AccessController{
      * @return whether the removing is successful
      */
     public boolean permanentTrashPlanner(String userId, String plannerId) {
-        return accPlanner.permanentTrashPlanner(userId, plannerId);
+        boolean flag = accPlanner.permanentTrashPlanner(userId, parsePlannerId(plannerId));
+        if (flag) {
+            this.requestSave(userId);
+        }
+        return flag;
+    }
+
+    /**
+     * Parses a planner id entered by the user.
+     * @param plannerId A String representing the planner id.
+     * @return The planner id, or 0, which no planner has, if plannerId is not a number.
+     */
+    private static int parsePlannerId(String plannerId) {
+        try {
+            return Integer.parseInt(plannerId);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Only the accounts passed here are written by the next save of the accounts.
+    private void requestSave(String retriever) {
+        this.accGateway.markChanged(retriever);
+        if (this.writeBehind == null) {
+            this.save();
+        } else {
+            this.writeBehind.markDirty(this.accGateway);
+        }
+    }
+
+    private void requestFriendSave() {
+        if (this.writeBehind == null) {
+            this.friendGateway.save();
+        } else {
+            this.writeBehind.markDirty(this.friendGateway);
+        }
     }
 }
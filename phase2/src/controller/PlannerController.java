@@ -1,8 +1,16 @@
 package controller;
 
+import entity.IntSet;
+import entity.Planner;
+import gateway.MappedPlannerGateway;
 import gateway.PlannerGateway;
+import gateway.WriteBehindService;
+import use_case.Page;
 import use_case.PlannerManager;
+import use_case.PlannerSummary;
+import use_case.PlannerVisibilityManager;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -14,8 +22,11 @@ public class PlannerController {
 
     private AccessController accessController;
     private TemplateController templateController;
+    private PlannerVisibilityManager visibility;
 
-    private String currPlannerId;
+    private WriteBehindService writeBehind;
+
+    private int currPlannerId;
 
     /**
      * Sets the access Controller.
@@ -23,6 +34,16 @@ public class PlannerController {
      */
     public void setAccessController(AccessController accessController) {
         this.accessController = accessController;
+        this.visibility = accessController.getPlannerVisibility();
+        this.visibility.setPlannerManager(this.plannerManager);
+    }
+
+    /**
+     * Sets the write-behind service. Once it is set, changes are saved in the background instead of right away.
+     * @param writeBehind A WriteBehindService object.
+     */
+    public void setWriteBehind(WriteBehindService writeBehind) {
+        this.writeBehind = writeBehind;
     }
 
     /**
@@ -34,12 +55,25 @@ public class PlannerController {
     }
 
     /**
-     * Initializes the PlannerController. Creates a new PlannerManager.
+     * Initializes the PlannerController. Creates a new PlannerManager. Call load before using it.
      */
     public PlannerController(){
+        this(false);
+    }
+
+    /**
+     * Initializes the PlannerController. Creates a new PlannerManager. Call load before using it.
+     * @param useMappedStore Whether planners are stored as memory-mapped records that are loaded on first access,
+     *                       instead of one serialized map that is loaded at once. The mapped store is
+     *                       experimental and its saves bypass UnitOfWork and CommitLog.
+     */
+    public PlannerController(boolean useMappedStore){
         this.plannerManager = new PlannerManager();
-        this.plannerGateway = new PlannerGateway(plannerManager);
-        this.load();
+        if (useMappedStore) {
+            this.plannerGateway = new MappedPlannerGateway(plannerManager);
+        } else {
+            this.plannerGateway = new PlannerGateway(plannerManager);
+        }
     }
 
     /**
@@ -47,11 +81,12 @@ public class PlannerController {
      * @return The current planner id.
      */
     public String getCurrPlannerId() {
-        return currPlannerId;
+        return currPlannerId == 0 ? null : Integer.toString(currPlannerId);
     }
 
     /**
-     * Saves the planners.
+     * Saves the planners as a full snapshot. Single changes are journaled as they happen, so this only needs to be
+     * called to checkpoint the journal.
      * Call this function when a saving is needed. Must be called when exit the application.
      * @return A boolean value representing whether the saving process is successful.
      */
@@ -64,7 +99,11 @@ public class PlannerController {
      * @return A boolean value representing whether the loading process is successful.
      */
     public boolean load() {
-        return this.plannerGateway.load();
+        boolean flag = this.plannerGateway.load();
+        if (this.visibility != null) {
+            this.visibility.clear();
+        }
+        return flag;
     }
 
     /**
@@ -81,10 +120,11 @@ public class PlannerController {
             return null;
         } else {
             id = createdPlannerID;
-            this.currPlannerId = Integer.toString(id);
-            accessController.setPlanner(accessController.getCurrUserId(), this.currPlannerId);
-            this.save();
-            return this.currPlannerId;
+            this.currPlannerId = id;
+            accessController.setPlanner(accessController.getCurrUserId(), id);
+            this.saveChange(id);
+            this.publishChange(id, "created it");
+            return Integer.toString(id);
         }
     }
 
@@ -102,14 +142,14 @@ public class PlannerController {
      */
     public String viewUserPlanners() {
         StringBuilder res = new StringBuilder();
-        List<String> plannerIds = this.accessController.getPlanners(this.accessController.getCurrUserId());
-        if (plannerIds.size() == 0) {
+        IntSet plannerIds = this.accessController.getPlanners(this.accessController.getCurrUserId());
+        if (plannerIds.isEmpty()) {
             return "No personal planners available yet.";
         } else {
-            for (String plannerId : plannerIds) {
-                res.append(this.toString(Integer.parseInt(plannerId)));
+            plannerIds.forEach(plannerId -> {
+                res.append(this.toString(plannerId));
                 res.append("==================================\n");
-            }
+            });
             return res.toString();
         }
     }
@@ -120,29 +160,68 @@ public class PlannerController {
      */
     public String viewPublicPlanners() {
         StringBuilder res = new StringBuilder();
-        List<Integer> publicPlanners = this.getPublicPlanners();
-        for (int plannerId: publicPlanners) {
+        this.getPublicPlanners().forEach(plannerId -> {
             res.append(this.toString(plannerId));
             res.append("==================================\n");
-        }
+        });
         return res.toString();
     }
 
+    /**
+     * Returns a page of the planners owned by current user, or of every planner for an admin.
+     * @param cursor The cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize The largest number of planners in the page.
+     * @return The page of the summaries of the planners.
+     */
+    public Page<PlannerSummary> getUserPlannerPage(int cursor, int pageSize) {
+        IntSet plannerIds = this.accessController.getPlanners(this.accessController.getCurrUserId());
+        return this.plannerManager.getPlannerPage(plannerIds, cursor, pageSize);
+    }
+
+    /**
+     * Returns a page of the public planners.
+     * @param cursor The cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize The largest number of planners in the page.
+     * @return The page of the summaries of the planners.
+     */
+    public Page<PlannerSummary> getPublicPlannerPage(int cursor, int pageSize) {
+        return this.plannerManager.getPublicPlannerPage(cursor, pageSize);
+    }
+
+    /**
+     * Returns a page of the friends-only planners that the friends of the current user share with them.
+     * @param cursor The cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize The largest number of planners in the page.
+     * @return The page of the summaries of the planners.
+     */
+    public Page<PlannerSummary> getSharedPlannerPage(int cursor, int pageSize) {
+        String userId = this.accessController.getCurrUserId();
+        IntSet plannerIds = userId == null ? new IntSet() : this.visibility.getSharedPlanners(userId);
+        return this.plannerManager.getPlannerPage(plannerIds, cursor, pageSize);
+    }
+
+    /**
+     * Returns the ids of every planner available to the current user.
+     * @return A new IntSet of the ids.
+     */
+    public IntSet getVisiblePlanners() {
+        return this.visibility.getVisiblePlanners(this.accessController.getCurrUserId());
+    }
+
     /**
      * Checks if the planner with id is available to the current user.
      * @param id A string representing the ID of the planner.
      * @return A boolean value representing whether the planner is available to the current user.
      */
     public boolean checkPlanner(String id) {
-        List<String> plannerIds;
-        if (this.accessController.isAdmin(this.accessController.getCurrUserId()).equals("admin")) {
-            plannerIds = this.plannerManager.getAllPlannerId();
-        } else {
-            plannerIds = this.accessController.getPlanners(accessController.getCurrUserId());
+        int plannerId;
+        try {
+            plannerId = Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return false;
         }
-        List<Integer> publicIds = this.getPublicPlanners();
-        if (plannerIds.contains(id) || publicIds.contains(Integer.parseInt(id))) {
-            this.currPlannerId = id;
+        if (this.visibility.canSee(this.accessController.getCurrUserId(), plannerId)) {
+            this.currPlannerId = plannerId;
             return true;
         } else {
             return false;
@@ -157,8 +236,11 @@ public class PlannerController {
      * @return true iff is edit is successful.
      */
     public boolean edit(String item, String newAgenda){
-        boolean flag = plannerManager.edit(Integer.parseInt(currPlannerId), item, newAgenda);
-        this.save();
+        boolean flag = plannerManager.edit(this.currPlannerId, item, newAgenda);
+        this.saveChange(this.currPlannerId);
+        if (flag) {
+            this.publishChange(this.currPlannerId, "edited " + item + ": " + newAgenda);
+        }
         return flag;
     }
 
@@ -168,8 +250,13 @@ public class PlannerController {
      * @return true iff the planner's privacy status has been successfully set to status.
      */
     public boolean changePrivacyStatus(String status){
-        boolean flag = plannerManager.changePrivacyStatus(Integer.parseInt(currPlannerId), status);
-        this.save();
+        String oldStatus = plannerManager.getPrivacyStatus(this.currPlannerId);
+        boolean flag = plannerManager.changePrivacyStatus(this.currPlannerId, status);
+        if (flag) {
+            this.visibility.privacyStatusChanged(this.currPlannerId, oldStatus);
+            this.publishChange(this.currPlannerId, "made it " + status);
+        }
+        this.saveChange(this.currPlannerId);
         return flag;
     }
 
@@ -179,19 +266,38 @@ public class PlannerController {
      */
     public boolean deletePlanner(String plannerId){
         accessController.removePlanner(accessController.getCurrUserId(), plannerId);
-        boolean flag = this.plannerManager.deletePlanner(Integer.parseInt(plannerId));
-        this.save();
+        int id = Integer.parseInt(plannerId);
+        // Published first, while the friends of the owner may still see the planner.
+        this.publishChange(id, "deleted it");
+        boolean flag = this.plannerManager.deletePlanner(id);
+        this.saveChange(id);
         return flag;
     }
 
     /**
      * Returns a list of id's of all planners that are public.
-     * @return List of all public planner's id.
+     * @return IntSet of all public planner's id.
      */
-    public List<Integer> getPublicPlanners(){
+    public IntSet getPublicPlanners(){
         return plannerManager.getPublicPlanners();
     }
 
+    /**
+     * Searches the names and contents of the planners available to the current user: their own planners, the
+     * public ones and the friends-only ones of their friend circle, or every planner for an admin.
+     * @param query The words to look for.
+     * @param limit The largest number of planners returned.
+     * @return The ids of the best matching planners, best first.
+     */
+    public List<String> search(String query, int limit) {
+        String userId = this.accessController.getCurrUserId();
+        List<String> res = new ArrayList<>();
+        for (Integer id : this.plannerManager.search(query, limit, id -> this.visibility.canSee(userId, id))) {
+            res.add(id.toString());
+        }
+        return res;
+    }
+
     /**
      * Gets the type of the planner with id.
      * @param id The id of the planner.
@@ -217,8 +323,11 @@ public class PlannerController {
      * @return A boolean value representing whether the change is successful.
      */
     public boolean add(String i, String j) {
-        boolean flag = this.plannerManager.add(Integer.parseInt(this.getCurrPlannerId()), i, j);
-        this.save();
+        boolean flag = this.plannerManager.add(this.currPlannerId, i, j);
+        this.saveChange(this.currPlannerId);
+        if (flag) {
+            this.publishChange(this.currPlannerId, "added " + i + ": " + j);
+        }
         return flag;
     }
 
@@ -229,8 +338,39 @@ public class PlannerController {
      * @return A boolean value representing whether the change is successful.
      */
     public boolean changeTaskStatus(String taskName, String status) {
-        boolean flag = plannerManager.changeTaskStatus(Integer.parseInt(getCurrPlannerId()), taskName, status);
-        this.save();
+        boolean flag = plannerManager.changeTaskStatus(this.currPlannerId, taskName, status);
+        this.saveChange(this.currPlannerId);
+        if (flag) {
+            this.publishChange(this.currPlannerId, "marked " + taskName + " as " + status);
+        }
         return flag;
     }
+
+    /**
+     * Returns how often planners were shown from their kept string representation instead of building it again.
+     * @return A one-line String with the counts.
+     */
+    public String getRenderStats() {
+        return "Planner views: " + Planner.getRenderCounter();
+    }
+
+    private void publishChange(int id, String change) {
+        Planner planner = this.plannerManager.findPlanner(id);
+        if (planner != null) {
+            this.accessController.publishPlannerChange(id, planner.getPlannerName(), change);
+        }
+    }
+
+    private void saveChange(int id) {
+        if (this.writeBehind == null) {
+            this.plannerGateway.saveChange(id);
+            if (this.plannerGateway.needsCheckpoint()) {
+                this.save();
+            }
+        } else {
+            // Written by the next flush, in the same batch as the other changes of this user action.
+            this.plannerGateway.stageChange(id);
+            this.writeBehind.markDirty(this.plannerGateway);
+        }
+    }
 }
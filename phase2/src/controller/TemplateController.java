@@ -1,11 +1,15 @@
 package controller;
 
 
+import entity.Template;
 import gateway.TemplateGateway;
+import gateway.WriteBehindService;
+import use_case.Page;
 import use_case.TemplateManager;
+import use_case.TemplateSummary;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 
 /**
  * Controller for Templates.
@@ -17,12 +21,16 @@ public class TemplateController{
     private AccessController accessController;
     private PlannerController plannerController;
 
+    private WriteBehindService writeBehind;
+
     private String currTemplateId;
 
+    /**
+     * Initializes the TemplateController. Creates a new TemplateManager. Call load before using it.
+     */
     public TemplateController() {
         templateManager = new TemplateManager();
         templateGateway = new TemplateGateway(templateManager);
-        this.load();
     }
 
     /**
@@ -41,6 +49,14 @@ public class TemplateController{
         this.plannerController = plannerController;
     }
 
+    /**
+     * Sets the write-behind service. Once it is set, changes are saved in the background instead of right away.
+     * @param writeBehind A WriteBehindService object.
+     */
+    public void setWriteBehind(WriteBehindService writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
     /**
      * Gets the current template ID.
      * @return A String representing the current template ID.
@@ -58,6 +74,14 @@ public class TemplateController{
         return templateManager.detailViewAllTemplates(publishedTemplatesOnly);
     }
 
+    /**
+     * Returns how often templates were shown from their kept string representations instead of building them again.
+     * @return A one-line String with the counts.
+     */
+    public String getRenderStats() {
+        return "Template views: " + Template.getRenderCounter();
+    }
+
     /**
      * Returns a detailed string representation of a template with id.
      * @param id ID of the template.
@@ -91,28 +115,58 @@ public class TemplateController{
      * @return A boolean value representing whether a template with ID being id is stored in the program.
      */
     public boolean checkTemplate(String id) {
-        for (String tempId: this.getAllTemplateIds(false)) {
-            if (Objects.equals(id, tempId)) {
-                this.currTemplateId = id;
-                return true;
-            }
+        int templateId;
+        try {
+            templateId = Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (this.templateManager.hasTemplate(templateId)) {
+            this.currTemplateId = Integer.toString(templateId);
+            return true;
         }
         return false;
     }
 
+    /**
+     * Returns a page of the templates.
+     * @param cursor The cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize The largest number of templates in the page.
+     * @param publishedTemplatesOnly Boolean indicating whether to list only published templates.
+     * @return The page of the summaries of the templates.
+     */
+    public Page<TemplateSummary> getTemplatePage(int cursor, int pageSize, boolean publishedTemplatesOnly) {
+        return this.templateManager.getTemplatePage(cursor, pageSize, publishedTemplatesOnly);
+    }
+
+    /**
+     * Finds templates as the user types, by their name.
+     * @param text The text the user has typed so far.
+     * @param limit The largest number of templates returned.
+     * @param publishedTemplatesOnly Boolean indicating whether to find only published templates.
+     * @return A List that contains the id's of the templates found, best first.
+     */
+    public List<String> lookUpTemplates(String text, int limit, boolean publishedTemplatesOnly) {
+        List<String> output = new ArrayList<>();
+        for (Integer id: this.templateManager.lookUpTemplates(text, limit, publishedTemplatesOnly)) {
+            output.add(id.toString());
+        }
+        return output;
+    }
+
     /**
      * Returns a collection of all template id's in String.
      * @param publishedTemplatesOnly Boolean indicating whether to retrieve ids of only the published templates.
      * @return A List that contains the id's of all templates.
      */
     public List<String> getAllTemplateIds(boolean publishedTemplatesOnly) {
-        List<String> output = new ArrayList<>();
-        List<Integer> allIntIDs;
+        Set<Integer> allIntIDs;
         if (publishedTemplatesOnly) {
-            allIntIDs = new ArrayList<>(this.templateManager.retrievePublishedTemplates().keySet());
+            allIntIDs = this.templateManager.retrievePublishedTemplates().keySet();
         } else {
-            allIntIDs = new ArrayList<>(this.templateManager.getTemplates().keySet());
+            allIntIDs = this.templateManager.getTemplates().keySet();
         }
+        List<String> output = new ArrayList<>(allIntIDs.size());
         for (Integer id: allIntIDs) {
             output.add(id.toString());
         }
@@ -152,7 +206,7 @@ public class TemplateController{
      */
     public void setTemplateName(int id, String newName){
         this.templateManager.setTemplateName(id, newName);
-        this.save();
+        this.requestSave();
     }
 
     /**
@@ -171,7 +225,14 @@ public class TemplateController{
                                String firstPlannerPrompt, String secondPlannerPrompt, String thirdPlannerPrompt){
         this.templateManager.createTemplate(templateType, templateName, plannerNamePrompt, firstPlannerPrompt,
                 secondPlannerPrompt, thirdPlannerPrompt);
-        this.save();
+        this.requestSave();
     }
 
+    private void requestSave() {
+        if (this.writeBehind == null) {
+            this.save();
+        } else {
+            this.writeBehind.markDirty(this.templateGateway);
+        }
+    }
 }
@@ -2,6 +2,10 @@ package entity;
 
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.io.Serializable;
@@ -13,31 +17,83 @@ import java.util.Map;
  * An instance of this class represents an account in this application.
  */
 public abstract class Account implements Serializable {
+    private static final long serialVersionUID = 8571782665650655896L;
+
     /**
      * accountType: Type of Account.
      * userName: Username associated with the Account.
-     * userId: User ID associated with the Account.
+     * id: Dense integer ID of the Account, handed out in the order accounts are created.
+     * userId: User ID associated with the Account, an alias of id that users log in with.
      * email: Email associated with the Account.
      * password: Password associated with the Account.
      * suspendedTime: Time this Account is suspended for.
-     * friends: List of Accounts that are this Account's friends.
      */
     protected String accountType;
     protected String userName;
+    protected int id;
     protected String userId;
     protected String email;
     protected String password;
     protected LocalDateTime suspendedTime;
-    protected List<Account> friends;
+    // The friends of an account written by an older version with Java serialization, until they are handed on.
+    private transient List<Account> legacyFriends;
 
     /**
      * Constructs an Account object.
+     * @param id Dense integer ID of the account, which must not be used by any other account. The user ID of the
+     *           account is its decimal form.
      */
-    public Account() {
+    public Account(int id) {
         this.accountType = "regular";
-        this.userId = ((Integer)Math.abs(this.hashCode())).toString();
+        this.id = id;
+        this.userId = Integer.toString(id);
         suspendedTime = LocalDateTime.now();
-        friends = new ArrayList<>();
+    }
+
+    /**
+     * Constructs an Account object from its compact binary format written by writeTo.
+     * @param in The input the account is read from.
+     * @throws IOException If the account cannot be read from in.
+     */
+    protected Account(DataInput in) throws IOException {
+        this.accountType = DataFields.readString(in);
+        this.userName = DataFields.readString(in);
+        this.userId = DataFields.readString(in);
+        this.email = DataFields.readString(in);
+        this.password = DataFields.readString(in);
+        this.suspendedTime = DataFields.readTime(in);
+    }
+
+    /**
+     * Writes this account in its compact binary format. Subclasses write their own fields after calling this method.
+     * @param out The output the account is written to.
+     * @throws IOException If the account cannot be written to out.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        DataFields.writeString(out, this.accountType);
+        DataFields.writeString(out, this.userName);
+        DataFields.writeString(out, this.userId);
+        DataFields.writeString(out, this.email);
+        DataFields.writeString(out, this.password);
+        DataFields.writeTime(out, this.suspendedTime);
+    }
+
+    /**
+     * Hands on the friends of an account written by an older version with Java serialization, which kept its friends
+     * itself. Call this function once every account of the file has been read.
+     * @return The user IDs of the friends of this account, empty if there are none to hand on.
+     */
+    public List<String> takeLegacyFriendIds() {
+        List<String> friendIds = new ArrayList<>();
+        if (this.legacyFriends != null) {
+            for (Account friend : this.legacyFriends) {
+                if (friend != null) {
+                    friendIds.add(friend.getUserId());
+                }
+            }
+            this.legacyFriends = null;
+        }
+        return friendIds;
     }
 
     /**
@@ -74,56 +130,32 @@ public abstract class Account implements Serializable {
     }
 
     /**
-     * return the friends of the user.
-     * @return a List of Account representing the friends of the user.
-     */
-    public List<Account> getFriends() {
-        return friends;
-    }
-
-    /**
-     * return whether the given account is a friend of the user or not
-     * @param acc Account of the friend
-     * @return boolean, whether the given account is a friend of the user or not
-     */
-    public boolean findFriend(Account acc){
-        return friends.contains(acc);
-    }
-
-    /**
-     * add the given Account to the List of friends
-     * @param acc the account to be added
+     * @return A String that represents the email of this account.
      */
-    public void addFriend(Account acc){
-        friends.add(acc);
+    public String getEmail() {
+        return this.email;
     }
 
     /**
-     * delete the friend from the List of friends
-     * @param acc the given Account, representing the friend
-     * @return whether the change is made in 'friends' or not
+     * @param email A String representing the email of this account.
      */
-    public boolean removeFriend(Account acc){
-        if (findFriend(acc)){
-            friends.remove(acc);
-            return true;
-        } else {
-            return false;
-        }
+    public void setEmail(String email) {
+        this.email = email;
     }
 
     /**
-     * @return A String that represents the email of this account.
+     * @return An integer that represents the dense ID of this account, or 0 if none has been assigned yet.
      */
-    public String getEmail() {
-        return this.email;
+    public int getId() {
+        return this.id;
     }
 
     /**
-     * @param email A String representing the email of this account.
+     * Assigns the dense ID of an account that was stored before accounts had one. The user ID is not changed.
+     * @param id Dense integer ID of the account, which must not be used by any other account.
      */
-    public void setEmail(String email) {
-        this.email = email;
+    public void setId(int id) {
+        this.id = id;
     }
 
     /**
@@ -167,5 +199,24 @@ public abstract class Account implements Serializable {
     public String getAccountType() {
         return this.accountType;
     }
-}
 
+    /**
+     * Reads an account written with Java serialization. Accounts written by older versions have no dense ID, which is
+     * assigned when they are added to an AccountManager, and keep their friends in a friends field, which is only
+     * remembered here: the friends may not have been read in full yet.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.accountType = (String) fields.get("accountType", null);
+        this.userName = (String) fields.get("userName", null);
+        this.id = fields.get("id", 0);
+        this.userId = (String) fields.get("userId", null);
+        this.email = (String) fields.get("email", null);
+        this.password = (String) fields.get("password", null);
+        this.suspendedTime = (LocalDateTime) fields.get("suspendedTime", null);
+        if (fields.getObjectStreamClass().getField("friends") != null) {
+            this.legacyFriends = (List<Account>) fields.get("friends", null);
+        }
+    }
+}
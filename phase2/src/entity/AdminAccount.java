@@ -1,19 +1,33 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.IOException;
+
 /**
  * An instance of this class represents an admin account in this application.
  */
 public class AdminAccount  extends Account {
+    private static final long serialVersionUID = 3610733793658533641L;
+
 
     /**
      * Constructs an AdminAccount.
+     * @param id Dense integer ID of this admin account.
      * @param email representing the email of this admin account.
      */
-    public AdminAccount(String email) {
-        super();
+    public AdminAccount(int id, String email) {
+        super(id);
         this.accountType = "admin";
         super.email = email;
-        super.userId = ((Integer) (email).hashCode()).toString();
+    }
+
+    /**
+     * Constructs an AdminAccount from its compact binary format written by writeTo.
+     * @param in The input the account is read from.
+     * @throws IOException If the account cannot be read from in.
+     */
+    public AdminAccount(DataInput in) throws IOException {
+        super(in);
     }
 
     /**
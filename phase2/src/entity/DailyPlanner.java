@@ -1,5 +1,8 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -10,6 +13,8 @@ import java.util.Map;
  * with a specified time interval. Allows users to fill in any activities planned for a particular hour. 
  */
 public class DailyPlanner extends Planner {
+    private static final long serialVersionUID = 5337946439584335247L;
+
     private Map<String, String> dailyPlannerTask;
     private List<String> timesList; // time array
     private int interval;  //minutes interval
@@ -20,26 +25,50 @@ public class DailyPlanner extends Planner {
 
     /**
      * Initializes a DailyPlanner.
+     * @param id ID of the planner, which must not be used by any other planner.
      * @param plannerName: The name of the planner
      * @param startTime: The start time of the current planner, "HH:MM"
      * @param endTime: The end time of the current planner, "HH:MM"
      * @param Interval: Time interval between each calendar time, in hours
      */
-    public DailyPlanner(String plannerName, String startTime, String endTime, int Interval) {
-        super(plannerName);
-        this.ID = super.getID();
+    public DailyPlanner(int id, String plannerName, String startTime, String endTime, int Interval) {
+        super(id, plannerName);
+        this.ID = id;
         initializePlannerVars(startTime, endTime, Interval);
     }
 
     /**
-     * Initializes a DailyPlanner.
-     * @param numPlannersLoaded Number of planners already loaded in the program. So the ID of the planner will start
-     *                            from numPlannersLoaded + 1.
+     * Initializes a DailyPlanner from its compact binary format written by writeTo.
+     * @param in The input the planner is read from.
+     * @throws IOException If the planner cannot be read from in.
      */
-    public DailyPlanner(int numPlannersLoaded, String plannerName, String startTime, String endTime, int Interval) {
-        super(numPlannersLoaded, plannerName);
-        this.ID = super.getID();
-        initializePlannerVars(startTime, endTime, Interval);
+    public DailyPlanner(DataInput in) throws IOException {
+        super(in);
+        this.ID = in.readInt();
+        this.interval = in.readInt();
+        this.startHour = in.readInt();
+        this.endHour = in.readInt();
+        this.numAgendas = in.readInt();
+        this.timesList = DataFields.readStrings(in);
+        this.dailyPlannerTask = new HashMap<>();
+        DataFields.readStringMap(in, this.dailyPlannerTask);
+    }
+
+    /**
+     * Writes this planner in its compact binary format.
+     * @param out The output the planner is written to.
+     * @throws IOException If the planner cannot be written to out.
+     */
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeInt(this.ID);
+        out.writeInt(this.interval);
+        out.writeInt(this.startHour);
+        out.writeInt(this.endHour);
+        out.writeInt(this.numAgendas);
+        DataFields.writeStrings(out, this.timesList);
+        DataFields.writeStringMap(out, this.dailyPlannerTask);
     }
 
     private void initializePlannerVars(String startTime, String endTime, int Interval) {
@@ -76,6 +105,20 @@ public class DailyPlanner extends Planner {
         return ID;
     }
 
+    /**
+     * @return The name of this planner followed by the agendas of its timeslots, without the empty ones.
+     */
+    @Override
+    public List<String> getSearchableText() {
+        List<String> text = super.getSearchableText();
+        for (String agenda : this.dailyPlannerTask.values()) {
+            if (!agenda.equals("N/A")) {
+                text.add(agenda);
+            }
+        }
+        return text;
+    }
+
     /**
      * Gets the number of agendas the daily planner has.
      * @return An integer representation of the number of agendas.
@@ -88,7 +131,7 @@ public class DailyPlanner extends Planner {
      * @return A string representing this DailyPlanner.
      */
     @Override
-    public String toString() {
+    protected String render() {
         StringBuilder sb = new StringBuilder();
         sb.append("Status: ").append(this.privacyStatus).append("\n");
 
@@ -113,6 +156,7 @@ public class DailyPlanner extends Planner {
      */
     @Override
     public Boolean add(String time, String agenda) {
+        this.invalidateRendering();
         this.numAgendas++;
         int newStartHour = Integer.parseInt(time.substring(0, 2));
 
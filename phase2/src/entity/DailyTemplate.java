@@ -1,5 +1,8 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -7,6 +10,8 @@ import java.util.List;
  * users can fill in tasks planned for hours in a particular day.
  */
 public class DailyTemplate extends Template{
+    private static final long serialVersionUID = 5121667345108703882L;
+
     /**
      * Prompts that are unique to this template:
      * startTimePrompt: Prompt for the start time of the planner that will be created based on this template.
@@ -19,13 +24,14 @@ public class DailyTemplate extends Template{
 
     /**
      * Constructs a DailyTemplate object.
+     * @param id ID of the template, which must not be used by any other template.
      * @param name Name of this template.
      * @param plannerNamePrompt Prompt for getting the name of the planner that can be created from this template.
      */
-    public DailyTemplate(String name, String plannerNamePrompt,
+    public DailyTemplate(int id, String name, String plannerNamePrompt,
                          String startTimePrompt, String endTimePrompt, String incrementPrompt) {
-        super(name, plannerNamePrompt);
-        this.id = super.getId();
+        super(id, name, plannerNamePrompt);
+        this.id = id;
         this.startTimePrompt = startTimePrompt;
         this.endTimePrompt = endTimePrompt;
         this.incrementPrompt = incrementPrompt;
@@ -33,20 +39,33 @@ public class DailyTemplate extends Template{
     }
 
     /**
-     * Constructs a DailyTemplate object.
-     * @param numTemplatesLoaded Number of Templates already loaded in the program. So the ID of the template will start
-     *                           from numTemplatesLoaded + 1.
+     * Constructs a DailyTemplate object from its compact binary format written by writeTo.
+     * @param in The input the template is read from.
+     * @throws IOException If the template cannot be read from in.
      */
-    public DailyTemplate(int numTemplatesLoaded, String name, String plannerNamePrompt,
-                         String startTimePrompt, String endTimePrompt, String incrementPrompt) {
-        super(numTemplatesLoaded, name, plannerNamePrompt);
-        this.id = super.getId();
-        this.startTimePrompt = startTimePrompt;
-        this.endTimePrompt = endTimePrompt;
-        this.incrementPrompt = incrementPrompt;
+    public DailyTemplate(DataInput in) throws IOException {
+        super(in);
+        this.id = in.readInt();
+        this.startTimePrompt = DataFields.readString(in);
+        this.endTimePrompt = DataFields.readString(in);
+        this.incrementPrompt = DataFields.readString(in);
         this.type = "daily";
     }
 
+    /**
+     * Writes this template in its compact binary format.
+     * @param out The output the template is written to.
+     * @throws IOException If the template cannot be written to out.
+     */
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeInt(this.id);
+        DataFields.writeString(out, this.startTimePrompt);
+        DataFields.writeString(out, this.endTimePrompt);
+        DataFields.writeString(out, this.incrementPrompt);
+    }
+
     @Override
     public String isType() {
         return this.type;
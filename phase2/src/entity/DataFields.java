@@ -0,0 +1,116 @@
+package entity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the field types shared by the entities in their compact binary format.
+ * A string is written as a one-byte tag followed by its length in bytes and its UTF-8 bytes, so it may be of any
+ * length. Older versions wrote strings with writeUTF, which is limited to 64 KB, under a tag of its own; they are
+ * still read.
+ */
+final class DataFields {
+    private static final byte NULL_STRING = 0;
+    private static final byte SHORT_STRING = 1;
+    private static final byte STRING = 2;
+
+    private DataFields() {}
+
+    static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeByte(NULL_STRING);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(STRING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL_STRING:
+                return null;
+            case SHORT_STRING:
+                return in.readUTF();
+            case STRING:
+                int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException(String.format("Invalid string length %d.", length));
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            default:
+                throw new IOException(String.format("Unknown string tag %d.", tag));
+        }
+    }
+
+    static void writeStrings(DataOutput out, List<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String s : strings) {
+            writeString(out, s);
+        }
+    }
+
+    static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            strings.add(readString(in));
+        }
+        return strings;
+    }
+
+    static void writeIntSet(DataOutput out, IntSet set) throws IOException {
+        out.writeInt(set.size());
+        for (int value : set.toArray()) {
+            out.writeInt(value);
+        }
+    }
+
+    static void readIntSet(DataInput in, IntSet set) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            set.add(in.readInt());
+        }
+    }
+
+    static void writeStringMap(DataOutput out, Map<String, String> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    static void readStringMap(DataInput in, Map<String, String> map) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+    }
+
+    static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    static LocalDateTime readTime(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
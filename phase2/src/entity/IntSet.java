@@ -0,0 +1,152 @@
+package entity;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * A set of ints kept as a sorted int array. Membership is checked with a binary search, and since ids are handed out
+ * in increasing order, adding a new id usually appends it at the end.
+ */
+public class IntSet implements Serializable {
+    private static final long serialVersionUID = 2481270683218911547L;
+
+    private int[] elements;
+    private int size;
+
+    /**
+     * Creates an empty IntSet.
+     */
+    public IntSet() {
+        this.elements = new int[4];
+    }
+
+    /**
+     * Creates an IntSet with the ints of other.
+     * @param other The set whose ints are copied.
+     */
+    public IntSet(IntSet other) {
+        this.elements = Arrays.copyOf(other.elements, Math.max(4, other.size));
+        this.size = other.size;
+    }
+
+    /**
+     * @return Number of ints in this set.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true iff this set has no ints.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param value The int to look for.
+     * @return true iff value is in this set.
+     */
+    public boolean contains(int value) {
+        return Arrays.binarySearch(this.elements, 0, this.size, value) >= 0;
+    }
+
+    /**
+     * Adds value to this set.
+     * @param value The int to add.
+     * @return true iff value was not in this set before.
+     */
+    public boolean add(int value) {
+        int i = this.size == 0 || value > this.elements[this.size - 1] ? -this.size - 1
+                : Arrays.binarySearch(this.elements, 0, this.size, value);
+        if (i >= 0) {
+            return false;
+        }
+        int at = -i - 1;
+        if (this.size == this.elements.length) {
+            this.elements = Arrays.copyOf(this.elements, this.size * 2);
+        }
+        System.arraycopy(this.elements, at, this.elements, at + 1, this.size - at);
+        this.elements[at] = value;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Adds every int of other to this set.
+     * @param other The set whose ints are added.
+     */
+    public void addAll(IntSet other) {
+        for (int i = 0; i < other.size; i++) {
+            this.add(other.elements[i]);
+        }
+    }
+
+    /**
+     * Removes value from this set.
+     * @param value The int to remove.
+     * @return true iff value was in this set.
+     */
+    public boolean remove(int value) {
+        int i = Arrays.binarySearch(this.elements, 0, this.size, value);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(this.elements, i + 1, this.elements, i, this.size - i - 1);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Calls action on every int of this set, in increasing order.
+     * @param action The action to call.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < this.size; i++) {
+            action.accept(this.elements[i]);
+        }
+    }
+
+    /**
+     * @return An iterator over the ints of this set, in increasing order.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return elements[this.next++];
+            }
+        };
+    }
+
+    /**
+     * @return A new array with the ints of this set, in increasing order.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.elements, this.size);
+    }
+
+    /**
+     * @param after The int the returned ints are greater than.
+     * @param limit The largest number of ints returned.
+     * @return A new array with the first limit ints of this set that are greater than after, in increasing order.
+     */
+    public int[] toArray(int after, int limit) {
+        int i = Arrays.binarySearch(this.elements, 0, this.size, after);
+        int from = i >= 0 ? i + 1 : -i - 1;
+        return Arrays.copyOfRange(this.elements, from, from + Math.max(0, Math.min(limit, this.size - from)));
+    }
+}
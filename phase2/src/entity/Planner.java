@@ -1,53 +1,106 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /** The planner entity.
  * @author Runlong, Zifan
  */
 public abstract class Planner implements Serializable {
+    private static final long serialVersionUID = 8683617410590061497L;
+    private static final RenderCounter RENDER_COUNTER = new RenderCounter();
+
     /**
      * plannerName: Name of the planner.
-     * ID: ID of the planner.
      * privacyStatus: Privacy Status of the planner.
      */
     protected String plannerName;
-    private static int ID;
     protected String privacyStatus;
+    // The last string built by render, or null once this planner has changed since.
+    private transient String rendered;
 
     /**
-     * Initializes the Planner.
-     * @param numPlannersLoaded Number of planners already loaded in the program. So the ID of the planner will start
-     *                            from numPlannersLoaded + 1.
+     * Initializes the Planner. Subclasses keep the id themselves; it is handed out by an IdAllocator, so planners can
+     * be created on several threads at once.
+     * @param id ID of the planner, which must not be used by any other planner.
      * @param plannerName Name of the planner.
      */
-    public Planner(int numPlannersLoaded, String plannerName){
+    public Planner(int id, String plannerName){
         this.plannerName = plannerName;
         this.privacyStatus = "private";
-        ID = numPlannersLoaded;
-        ID++;
     }
 
     /**
-     * Initializes the Planner.
-     * @param plannerName: the planner name.
+     * Initializes the Planner from its compact binary format written by writeTo.
+     * @param in The input the planner is read from.
+     * @throws IOException If the planner cannot be read from in.
      */
-    public Planner(String plannerName){
-        this.plannerName = plannerName;
-        this.privacyStatus = "private";
-        ID++;
+    protected Planner(DataInput in) throws IOException {
+        this.plannerName = DataFields.readString(in);
+        this.privacyStatus = DataFields.readString(in);
+    }
+
+    /**
+     * Writes this planner in its compact binary format. Subclasses write their own fields after calling this method.
+     * @param out The output the planner is written to.
+     * @throws IOException If the planner cannot be written to out.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        DataFields.writeString(out, this.plannerName);
+        DataFields.writeString(out, this.privacyStatus);
     }
 
     /**
+     * Returns a string representation of this planner. It is built once and then kept until this planner changes.
      * @return A string representation of this planner.
      */
-    public abstract String toString();
+    @Override
+    public String toString() {
+        String res = this.rendered;
+        if (res == null) {
+            RENDER_COUNTER.miss();
+            res = this.render();
+            this.rendered = res;
+        } else {
+            RENDER_COUNTER.hit();
+        }
+        return res;
+    }
+
+    /**
+     * Builds the string representation of this planner.
+     * @return A string representation of this planner.
+     */
+    protected abstract String render();
+
+    /**
+     * Drops the string representation kept by toString. Call it whenever a field shown by render changes.
+     */
+    protected void invalidateRendering() {
+        this.rendered = null;
+    }
+
+    /**
+     * @return The RenderCounter that counts how often toString of any planner is served from the kept string.
+     */
+    public static RenderCounter getRenderCounter() {
+        return RENDER_COUNTER;
+    }
 
      /**
       * @return An integer representing the id of this planner.
       */
-    public int getID(){
-        return ID;
+    public abstract int getID();
+
+     /**
+      * @return A String representing the name of this planner.
+      */
+    public String getPlannerName() {
+        return this.plannerName;
     }
 
      /**
@@ -57,6 +110,16 @@ public abstract class Planner implements Serializable {
         return this.privacyStatus;
     }
 
+    /**
+     * Returns the texts of this planner that can be searched. Subclasses add their agendas or tasks after the name.
+     * @return A new List of Strings, starting with the name of this planner.
+     */
+    public List<String> getSearchableText() {
+        List<String> text = new ArrayList<>();
+        text.add(this.plannerName);
+        return text;
+    }
+
     /**
      * @return A String representing the planner type.
      */
@@ -94,6 +157,7 @@ public abstract class Planner implements Serializable {
             return false;
         } else {
             privacyStatus = status;
+            this.invalidateRendering();
             return true;
         }
     }
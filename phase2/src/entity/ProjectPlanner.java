@@ -1,5 +1,8 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -10,6 +13,8 @@ import java.util.Map;
  * project in an appropriate column.
  */
 public class ProjectPlanner extends Planner{
+    private static final long serialVersionUID = -1565459838251113382L;
+
     /**
      * tasks: A Map containing all the status columns and the tasks in them.
      * numTasks: Total number of tasks in this planner.
@@ -19,28 +24,51 @@ public class ProjectPlanner extends Planner{
     private int numTasks = 0;
 
     /**
-     * Initializes a ProjectPlanner.
+     * Initializes a ProjectPlanner
+     * @param id ID of the planner, which must not be used by any other planner.
      * @param plannerName Name of the planner.
      * @param firstColName Name of the first status column.
      * @param secondColName Name of the second status column.
      * @param thirdColName Name of the third status column.
      */
-    public ProjectPlanner(String plannerName, String firstColName, String secondColName, String thirdColName) {
-        super(plannerName);
-        this.ID = super.getID();
+    public ProjectPlanner(int id, String plannerName, String firstColName, String secondColName,
+                          String thirdColName) {
+        super(id, plannerName);
+        this.ID = id;
         initializePlannerVars(firstColName, secondColName, thirdColName);
     }
 
     /**
-     * Initializes a ProjectPlanner
-     * @param numPlannersLoaded Number of planners already loaded in the program. So the ID of the planner will start
-     *                            from numPlannersLoaded + 1.
+     * Initializes a ProjectPlanner from its compact binary format written by writeTo.
+     * @param in The input the planner is read from.
+     * @throws IOException If the planner cannot be read from in.
      */
-    public ProjectPlanner(int numPlannersLoaded, String plannerName, String firstColName, String secondColName,
-                          String thirdColName) {
-        super(numPlannersLoaded, plannerName);
-        this.ID = super.getID();
-        initializePlannerVars(firstColName, secondColName, thirdColName);
+    public ProjectPlanner(DataInput in) throws IOException {
+        super(in);
+        this.ID = in.readInt();
+        this.numTasks = in.readInt();
+        this.tasks = new HashMap<>();
+        int numColumns = in.readInt();
+        for (int i = 0; i < numColumns; i++) {
+            this.tasks.put(DataFields.readString(in), DataFields.readStrings(in));
+        }
+    }
+
+    /**
+     * Writes this planner in its compact binary format.
+     * @param out The output the planner is written to.
+     * @throws IOException If the planner cannot be written to out.
+     */
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeInt(this.ID);
+        out.writeInt(this.numTasks);
+        out.writeInt(this.tasks.size());
+        for (Map.Entry<String, List<String>> column: this.tasks.entrySet()) {
+            DataFields.writeString(out, column.getKey());
+            DataFields.writeStrings(out, column.getValue());
+        }
     }
 
     private void initializePlannerVars(String firstColName, String secondColName, String thirdColName) {
@@ -54,7 +82,7 @@ public class ProjectPlanner extends Planner{
      * @return A string representing this Project Planner.
      */
     @Override
-    public String toString() {
+    protected String render() {
         StringBuilder res = new StringBuilder();
         String separator = "====================\n";
         res.append("Status: ").append(this.getPrivacyStatus()).append("\n");
@@ -78,6 +106,18 @@ public class ProjectPlanner extends Planner{
         return "project";
     }
 
+    /**
+     * @return The name of this planner followed by the tasks of every column.
+     */
+    @Override
+    public List<String> getSearchableText() {
+        List<String> text = super.getSearchableText();
+        for (List<String> columnTasks : this.tasks.values()) {
+            text.addAll(columnTasks);
+        }
+        return text;
+    }
+
     /**
      * Returns the total number of agendas stored in this Project Planner object.
      * @return An integer representing the total number of agendas.
@@ -98,6 +138,7 @@ public class ProjectPlanner extends Planner{
         if (tasks.containsKey(columnName) && !tasks.get(columnName).contains(agenda)) {
             tasks.get(columnName).add(agenda);
             numTasks++;
+            this.invalidateRendering();
             return true;
         } else {
             return false;
@@ -134,6 +175,7 @@ public class ProjectPlanner extends Planner{
         } else {
             tasks.get(newColumn).add(agenda);
             tasks.get(currColumn).remove(agenda);
+            this.invalidateRendering();
             return true;
         }
     }
@@ -162,6 +204,7 @@ public class ProjectPlanner extends Planner{
             return false;
         } else {
             tasks.get(currColumn).remove(agenda);
+            this.invalidateRendering();
             return true;
         }
     }
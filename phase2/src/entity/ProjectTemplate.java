@@ -1,5 +1,8 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -7,6 +10,8 @@ import java.util.List;
  * users can fill in tasks for a particular project based on the status of the tasks.
  */
 public class ProjectTemplate extends Template{
+    private static final long serialVersionUID = -8553807583718409699L;
+
     /**
      * Prompts that are unique to this template:
      * firstStatusPrompt: Prompt asking for the first status column heading (e.g., To Do).
@@ -19,13 +24,14 @@ public class ProjectTemplate extends Template{
 
     /**
      * Constructs a ProjectTemplate object.
+     * @param id ID of the template, which must not be used by any other template.
      * @param name Name of this template.
      * @param plannerNamePrompt Prompt for getting the name of the planner that can be created from this template.
      */
-    public ProjectTemplate(String name, String plannerNamePrompt,
+    public ProjectTemplate(int id, String name, String plannerNamePrompt,
                            String firstStatusPrompt, String secondStatusPrompt, String thirdStatusPrompt) {
-        super(name, plannerNamePrompt);
-        this.id = super.getId();
+        super(id, name, plannerNamePrompt);
+        this.id = id;
         this.firstStatusPrompt = firstStatusPrompt;
         this.secondStatusPrompt = secondStatusPrompt;
         this.thirdStatusPrompt = thirdStatusPrompt;
@@ -33,20 +39,33 @@ public class ProjectTemplate extends Template{
     }
 
     /**
-     * Constructs a ProjectTemplate object.
-     * @param numTemplatesLoaded Number of Templates already loaded in the program. So the ID of the template will start
-     *                            from numTemplatesLoaded + 1.
+     * Constructs a ProjectTemplate object from its compact binary format written by writeTo.
+     * @param in The input the template is read from.
+     * @throws IOException If the template cannot be read from in.
      */
-    public ProjectTemplate(int numTemplatesLoaded, String name, String plannerNamePrompt,
-                           String firstStatusPrompt, String secondStatusPrompt, String thirdStatusPrompt) {
-        super(numTemplatesLoaded, name, plannerNamePrompt);
-        this.id = super.getId();
-        this.firstStatusPrompt = firstStatusPrompt;
-        this.secondStatusPrompt = secondStatusPrompt;
-        this.thirdStatusPrompt = thirdStatusPrompt;
+    public ProjectTemplate(DataInput in) throws IOException {
+        super(in);
+        this.id = in.readInt();
+        this.firstStatusPrompt = DataFields.readString(in);
+        this.secondStatusPrompt = DataFields.readString(in);
+        this.thirdStatusPrompt = DataFields.readString(in);
         this.type = "project";
     }
 
+    /**
+     * Writes this template in its compact binary format.
+     * @param out The output the template is written to.
+     * @throws IOException If the template cannot be written to out.
+     */
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeInt(this.id);
+        DataFields.writeString(out, this.firstStatusPrompt);
+        DataFields.writeString(out, this.secondStatusPrompt);
+        DataFields.writeString(out, this.thirdStatusPrompt);
+    }
+
     @Override
     public String isType() {
         return this.type;
@@ -1,5 +1,8 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -11,6 +14,8 @@ import java.util.*;
  * and completion status.
  */
 public class ReminderPlanner extends Planner{
+    private static final long serialVersionUID = -1630170911171190191L;
+
     private Map<String, List<String>> reminderPlannerTask;
     private List<String> taskPromptTasks, datePromptTasks, completionPromptTasks;
     private String taskHeading, dateHeading, completionStatusHeading;
@@ -19,27 +24,49 @@ public class ReminderPlanner extends Planner{
 
     /**
      * Constructs a ReminderPlanner.
+     * @param id ID of the planner, which must not be used by any other planner.
      * @param taskHeading The first column name of the reminder planner.
      * @param dateHeading The second column name of the reminder planner.
      * @param completionStatusHeading The third column name of the reminder planner.
      */
-    public ReminderPlanner(String plannerName, String taskHeading, String dateHeading,
+    public ReminderPlanner(int id, String plannerName, String taskHeading, String dateHeading,
                            String completionStatusHeading){
-        super(plannerName);
-        this.ID = super.getID();
+        super(id, plannerName);
+        this.ID = id;
         initializePlannerVars(taskHeading, dateHeading, completionStatusHeading);
     }
 
     /**
-     * Constructs a ReminderPlanner.
-     * @param numPlannersLoaded Number of planners already loaded in the program. So the ID of the planner will start
-     *                            from numPlannersLoaded + 1.
+     * Constructs a ReminderPlanner from its compact binary format written by writeTo.
+     * @param in The input the planner is read from.
+     * @throws IOException If the planner cannot be read from in.
      */
-    public ReminderPlanner(int numPlannersLoaded, String plannerName, String taskHeading, String dateHeading,
-                           String completionStatusHeading){
-        super(numPlannersLoaded, plannerName);
-        this.ID = super.getID();
-        initializePlannerVars(taskHeading, dateHeading, completionStatusHeading);
+    public ReminderPlanner(DataInput in) throws IOException {
+        super(in);
+        this.ID = in.readInt();
+        initializePlannerVars(DataFields.readString(in), DataFields.readString(in), DataFields.readString(in));
+        this.numAgendas = in.readInt();
+        this.taskPromptTasks.addAll(DataFields.readStrings(in));
+        this.datePromptTasks.addAll(DataFields.readStrings(in));
+        this.completionPromptTasks.addAll(DataFields.readStrings(in));
+    }
+
+    /**
+     * Writes this planner in its compact binary format.
+     * @param out The output the planner is written to.
+     * @throws IOException If the planner cannot be written to out.
+     */
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeInt(this.ID);
+        DataFields.writeString(out, this.taskHeading);
+        DataFields.writeString(out, this.dateHeading);
+        DataFields.writeString(out, this.completionStatusHeading);
+        out.writeInt(this.numAgendas);
+        DataFields.writeStrings(out, this.taskPromptTasks);
+        DataFields.writeStrings(out, this.datePromptTasks);
+        DataFields.writeStrings(out, this.completionPromptTasks);
     }
 
     private void initializePlannerVars(String taskHeading, String dateHeading, String completionStatusHeading) {
@@ -60,7 +87,7 @@ public class ReminderPlanner extends Planner{
      * @return A string representation of this reminder planner.
      */
     @Override
-    public String toString(){
+    protected String render(){
         StringBuilder sb = new StringBuilder("\n");
         int taskNums = this.taskPromptTasks.size();
 
@@ -97,6 +124,16 @@ public class ReminderPlanner extends Planner{
         return "reminders";
     }
 
+    /**
+     * @return The name of this planner followed by the names of its tasks.
+     */
+    @Override
+    public List<String> getSearchableText() {
+        List<String> text = super.getSearchableText();
+        text.addAll(this.taskPromptTasks);
+        return text;
+    }
+
     /**
      * Returns the total number of agendas stored in this reminder planner object.
      * @return An integer representing the total number of agendas.
@@ -137,6 +174,7 @@ public class ReminderPlanner extends Planner{
             this.reminderPlannerTask.get(this.dateHeading).add(s2);
             this.reminderPlannerTask.get(this.completionStatusHeading).add("incomplete");
             this.numAgendas++;
+            this.invalidateRendering();
             return true;
         }
     }
@@ -153,6 +191,7 @@ public class ReminderPlanner extends Planner{
             int TaskIndex = this.reminderPlannerTask.get(this.taskHeading).indexOf(OldAgenda);
             this.reminderPlannerTask.get(this.taskHeading).remove(OldAgenda);
             this.reminderPlannerTask.get(this.taskHeading).add(TaskIndex, NewAgenda);
+            this.invalidateRendering();
             return true;
         } else {
             return false;
@@ -177,6 +216,7 @@ public class ReminderPlanner extends Planner{
                 this.reminderPlannerTask.get(completionStatusHeading).remove(TaskIndex);
                 this.reminderPlannerTask.get(completionStatusHeading).add(TaskIndex, "incomplete");
             }
+            this.invalidateRendering();
             return true;
             } else{
             return false;
@@ -1,5 +1,8 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -7,6 +10,8 @@ import java.util.List;
  * where users can fill in tasks for a particular project, the required completion dates and their completion status.
  */
 public class RemindersTemplate extends Template{
+    private static final long serialVersionUID = -5425224457401328086L;
+
     /**
      * Prompts that are unique to this template.
      * taskHeadingPrompt: the prompt asking for the heading of the tasks column(e.g., Tasks To Be Completed)
@@ -19,13 +24,14 @@ public class RemindersTemplate extends Template{
 
     /**
      * Constructs a RemindersTemplate object.
+     * @param id ID of the template, which must not be used by any other template.
      * @param name Name of this template.
      * @param plannerNamePrompt Prompt for getting the name of the planner that can be created from this template.
      */
-    public RemindersTemplate(String name, String plannerNamePrompt,
+    public RemindersTemplate(int id, String name, String plannerNamePrompt,
                              String taskHeadingPrompt, String dateHeadingPrompt, String completionStatusHeadingPrompt) {
-        super(name, plannerNamePrompt);
-        this.id = super.getId();
+        super(id, name, plannerNamePrompt);
+        this.id = id;
         this.taskHeadingPrompt = taskHeadingPrompt;
         this.dateHeadingPrompt = dateHeadingPrompt;
         this.completionStatusHeadingPrompt = completionStatusHeadingPrompt;
@@ -33,20 +39,33 @@ public class RemindersTemplate extends Template{
     }
 
     /**
-     * Constructs a RemindersTemplate object.
-     * @param numTemplatesLoaded Number of Templates already loaded in the program. So the ID of the template will start
-     *                            from numTemplatesLoaded + 1.
+     * Constructs a RemindersTemplate object from its compact binary format written by writeTo.
+     * @param in The input the template is read from.
+     * @throws IOException If the template cannot be read from in.
      */
-    public RemindersTemplate(int numTemplatesLoaded, String name, String plannerNamePrompt,
-                             String taskHeadingPrompt, String dateHeadingPrompt, String completionStatusHeadingPrompt) {
-        super(numTemplatesLoaded, name, plannerNamePrompt);
-        this.id = super.getId();
-        this.taskHeadingPrompt = taskHeadingPrompt;
-        this.dateHeadingPrompt = dateHeadingPrompt;
-        this.completionStatusHeadingPrompt = completionStatusHeadingPrompt;
+    public RemindersTemplate(DataInput in) throws IOException {
+        super(in);
+        this.id = in.readInt();
+        this.taskHeadingPrompt = DataFields.readString(in);
+        this.dateHeadingPrompt = DataFields.readString(in);
+        this.completionStatusHeadingPrompt = DataFields.readString(in);
         this.type = "reminders";
     }
 
+    /**
+     * Writes this template in its compact binary format.
+     * @param out The output the template is written to.
+     * @throws IOException If the template cannot be written to out.
+     */
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeInt(this.id);
+        DataFields.writeString(out, this.taskHeadingPrompt);
+        DataFields.writeString(out, this.dateHeadingPrompt);
+        DataFields.writeString(out, this.completionStatusHeadingPrompt);
+    }
+
     @Override
     public String isType() {
         return this.type;
@@ -0,0 +1,43 @@
+package entity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how often the rendered text of an entity is served from its cache (a hit) and how often it has to be built
+ * again (a miss), so the saving of the cache can be shown.
+ */
+public class RenderCounter {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    void hit() {
+        this.hits.incrementAndGet();
+    }
+
+    void miss() {
+        this.misses.incrementAndGet();
+    }
+
+    /**
+     * @return Number of times the rendered text was served from the cache.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * @return Number of times the rendered text was built.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * @return A one-line String representation of the counts.
+     */
+    @Override
+    public String toString() {
+        long hits = this.getHits();
+        return hits + " of " + (hits + this.getMisses()) + " served from cache";
+    }
+}
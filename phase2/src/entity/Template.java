@@ -1,5 +1,8 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.*;
 
@@ -8,44 +11,58 @@ import java.util.*;
  * Can be a Daily Template, or a Project Template, etc., which are implemented as subclasses.
  */
 public abstract class Template implements Serializable {
+    private static final long serialVersionUID = -6660930196539212344L;
+    private static final RenderCounter RENDER_COUNTER = new RenderCounter();
+
     /**
      * name: Name of this template.
      * plannerNamePrompt: Prompt for getting the name of the planner that can be created from this template.
-     * id: ID of this template.
      * type: Type of this template.
      * publishedStatus: Published status of this template (if true, the template is published).
      */
     protected String name;
     protected String plannerNamePrompt;
-    private static int id;
     private String type;
     protected boolean publishedStatus;
+    // The last strings built for toString and getTemplatePreview, or null once this template has changed since.
+    private transient String rendered;
+    private transient String renderedPreview;
 
     /**
-     * Constructs a new Template object named name, and has plannerNamePrompt.
+     * Constructs a new Template object named name, and has plannerNamePrompt. Subclasses keep the id themselves; it
+     * is handed out by an IdAllocator, so templates can be created on several threads at once.
+     * @param id ID of this template, which must not be used by any other template.
      * @param name Name of this template.
      * @param plannerNamePrompt Prompt for getting the name of the planner that can be created from this template.
      */
-    public Template(String name, String plannerNamePrompt) {
+    public Template(int id, String name, String plannerNamePrompt) {
         this.name = name;
         this.plannerNamePrompt = plannerNamePrompt;
         publishedStatus = false;  // the default published status of all templates are false (i.e., unpublished)
         type = null;
-        id++;
     }
 
     /**
-     * Constructs a new Template object named name, and has plannerNamePrompt.
-     * @param numTemplatesLoaded Number of Templates already loaded in the program. So the ID of the template will start
-     *                           from numTemplatesLoaded + 1.
+     * Constructs a Template object from its compact binary format written by writeTo.
+     * @param in The input the template is read from.
+     * @throws IOException If the template cannot be read from in.
      */
-    public Template(int numTemplatesLoaded, String name, String plannerNamePrompt) {
-        this.name = name;
-        this.plannerNamePrompt = plannerNamePrompt;
-        publishedStatus = false;  // the default published status of all templates are false (i.e., unpublished)
+    protected Template(DataInput in) throws IOException {
+        this.name = DataFields.readString(in);
+        this.plannerNamePrompt = DataFields.readString(in);
+        this.publishedStatus = in.readBoolean();
         type = null;
-        id = numTemplatesLoaded;
-        id++;
+    }
+
+    /**
+     * Writes this template in its compact binary format. Subclasses write their own fields after calling this method.
+     * @param out The output the template is written to.
+     * @throws IOException If the template cannot be written to out.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        DataFields.writeString(out, this.name);
+        DataFields.writeString(out, this.plannerNamePrompt);
+        out.writeBoolean(this.publishedStatus);
     }
 
     /**
@@ -54,6 +71,7 @@ public abstract class Template implements Serializable {
      */
     public void setName(String newName) {
         name = newName;
+        this.invalidateRendering();
     }
 
     /**
@@ -68,9 +86,7 @@ public abstract class Template implements Serializable {
      * Getter for retrieving the id of this template.
      * @return Integer that represents the id of this template.
      */
-    public int getId() {
-        return id;
-    }
+    public abstract int getId();
 
     /**
      * Setter for changing the published status of this template.
@@ -78,6 +94,7 @@ public abstract class Template implements Serializable {
      */
     public void setPublishedStatus(boolean newStatus) {
         publishedStatus = newStatus;
+        this.invalidateRendering();
     }
 
     /**
@@ -93,13 +110,26 @@ public abstract class Template implements Serializable {
      */
     public void switchPublishedStatus() {
         publishedStatus = !publishedStatus;
+        this.invalidateRendering();
     }
 
     /**
-     * Returns a string representation of the Template object.
+     * Returns a string representation of the Template object. It is built once and then kept until this template
+     * changes.
      * @return String that represents the Template object in detail.
      */
+    @Override
     public String toString() {
+        if (this.rendered == null) {
+            RENDER_COUNTER.miss();
+            this.rendered = this.render();
+        } else {
+            RENDER_COUNTER.hit();
+        }
+        return this.rendered;
+    }
+
+    private String render() {
         StringBuilder stringRep = new StringBuilder("---------------------------------------------------------\n");
         stringRep.append("ID: ").append(this.getId()).append("\n");
         stringRep.append("Name: ").append(this.getName()).append("\n");
@@ -121,13 +151,34 @@ public abstract class Template implements Serializable {
      * @return String preview of Template that includes basic information.
      */
     public String getTemplatePreview(){
-        String preview = "---------------------------------------------------------\n";
-        preview += "ID: " + this.getId() + "\n";
-        preview += "Name: " + this.getName() + "\n";
-        preview += "Type: " + this.isType() + "\n";
-        preview += "Number of Prompts: " + this.numPrompts() + "\n";
-        preview += "---------------------------------------------------------\n";
-        return preview;
+        if (this.renderedPreview == null) {
+            RENDER_COUNTER.miss();
+            this.renderedPreview = "---------------------------------------------------------\n"
+                    + "ID: " + this.getId() + "\n"
+                    + "Name: " + this.getName() + "\n"
+                    + "Type: " + this.isType() + "\n"
+                    + "Number of Prompts: " + this.numPrompts() + "\n"
+                    + "---------------------------------------------------------\n";
+        } else {
+            RENDER_COUNTER.hit();
+        }
+        return this.renderedPreview;
+    }
+
+    /**
+     * @return The RenderCounter that counts how often toString and getTemplatePreview of any template are served
+     * from the kept strings.
+     */
+    public static RenderCounter getRenderCounter() {
+        return RENDER_COUNTER;
+    }
+
+    /**
+     * Drops the strings kept by toString and getTemplatePreview.
+     */
+    private void invalidateRendering() {
+        this.rendered = null;
+        this.renderedPreview = null;
     }
 
     /**
@@ -1,25 +1,55 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDateTime;
 
 /**
  * An instance of this class represents a temporary account in this application.
  */
 public class TemporaryAccount extends UserAccount {
+    private static final long serialVersionUID = -6727708593258969211L;
+
 
     private final LocalDateTime startDate;
     private LocalDateTime endDate;
 
     /**
      * Constructs a TemporaryAccount.
+     * @param id Dense integer ID of this account.
      * @param email representing the email of this account.
      */
-    public TemporaryAccount(String email) {
-        super(email);
+    public TemporaryAccount(int id, String email) {
+        super(id, email);
         super.accountType = "temporary";
         this.startDate = LocalDateTime.now();
     }
 
+    /**
+     * Constructs a TemporaryAccount from its compact binary format written by writeTo.
+     * @param in The input the account is read from.
+     * @param version Version of the format, see UserAccount.
+     * @throws IOException If the account cannot be read from in.
+     */
+    public TemporaryAccount(DataInput in, int version) throws IOException {
+        super(in, version);
+        this.startDate = DataFields.readTime(in);
+        this.endDate = DataFields.readTime(in);
+    }
+
+    /**
+     * Writes this account in its compact binary format.
+     * @param out The output the account is written to.
+     * @throws IOException If the account cannot be written to out.
+     */
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        super.writeTo(out);
+        DataFields.writeTime(out, this.startDate);
+        DataFields.writeTime(out, this.endDate);
+    }
+
     /**
      * Return the role of this account: admin, regular, trial or temporary.
      * @return A string.
@@ -1,18 +1,34 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.IOException;
+
 /**
  * An instance of this class represents a trial account in this application.
  */
 public class TrialAccount extends UserAccount{
+    private static final long serialVersionUID = 4785624842973483721L;
+
 
     /**
      * Constructs a TrialAccount.
+     * @param id Dense integer ID of this account.
      */
-    public TrialAccount() {
-        super("");
+    public TrialAccount(int id) {
+        super(id, "");
         super.accountType = "trial";
     }
 
+    /**
+     * Constructs a TrialAccount from its compact binary format written by writeTo.
+     * @param in The input the account is read from.
+     * @param version Version of the format, see UserAccount.
+     * @throws IOException If the account cannot be read from in.
+     */
+    public TrialAccount(DataInput in, int version) throws IOException {
+        super(in, version);
+    }
+
     /**
      * Return the role of this account: admin, regular, trial or temporary.
      * @return A string.
@@ -1,32 +1,71 @@
 package entity;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * An instance of this class represents a user account in this application.
  */
 public class UserAccount extends Account {
+    private static final long serialVersionUID = 4368688556596528362L;
 
-    private final List<String> planners = new ArrayList<>();
-    private final List<String> trashPlanner = new ArrayList<>();
+
+    private IntSet planners = new IntSet();
+    private IntSet trashPlanner = new IntSet();
 
     /**
      * Constructs a UserAccount.
+     * @param id Dense integer ID of this user account.
      * @param email represent the email of this user account.
      */
-    public UserAccount(String email) {
-        super();
+    public UserAccount(int id, String email) {
+        super(id);
         this.accountType = "regular";
         super.email = email;
-        super.userId = ((Integer) (email).hashCode()).toString();
     }
 
     /**
-     * @return A List containing all planners of this user.
+     * Constructs a UserAccount from its compact binary format written by writeTo.
+     * @param in The input the account is read from.
+     * @param version Version of the format. Before version 3, planner ids were written as strings.
+     * @throws IOException If the account cannot be read from in.
+     */
+    public UserAccount(DataInput in, int version) throws IOException {
+        super(in);
+        if (version >= 3) {
+            DataFields.readIntSet(in, this.planners);
+            DataFields.readIntSet(in, this.trashPlanner);
+        } else {
+            for (String plannerId : DataFields.readStrings(in)) {
+                this.planners.add(Integer.parseInt(plannerId));
+            }
+            for (String plannerId : DataFields.readStrings(in)) {
+                this.trashPlanner.add(Integer.parseInt(plannerId));
+            }
+        }
+    }
+
+    /**
+     * Writes this account in its compact binary format.
+     * @param out The output the account is written to.
+     * @throws IOException If the account cannot be written to out.
      */
-    public List<String> getPlanner() {
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        super.writeTo(out);
+        DataFields.writeIntSet(out, this.planners);
+        DataFields.writeIntSet(out, this.trashPlanner);
+    }
+
+    /**
+     * @return An IntSet containing the ids of all planners of this user.
+     */
+    public IntSet getPlanner() {
         return this.planners;
     }
 
@@ -35,12 +74,8 @@ public class UserAccount extends Account {
      * @param plannerId The planner id that need to be added.
      * @return Return true if the plan is successfully added and false if not.
      */
-    public boolean setPlanners(String plannerId) {
-        if (!this.planners.contains(plannerId)) {
-            this.planners.add(plannerId);
-            return true;
-        }
-        return false;
+    public boolean setPlanners(int plannerId) {
+        return this.planners.add(plannerId);
     }
 
     /**
@@ -72,9 +107,8 @@ public class UserAccount extends Account {
      * delete the planner, add it to the trashcan
      * @param plannerId the id of the planner to be deleted
      */
-    public boolean removePlanner(String plannerId) {
-        if (planners.contains(plannerId)) {
-            this.planners.remove(plannerId);
+    public boolean removePlanner(int plannerId) {
+        if (this.planners.remove(plannerId)) {
             trashPlanner.add(plannerId);
             return true;
         } else {
@@ -84,23 +118,47 @@ public class UserAccount extends Account {
 
     /**
      * return the trashed planners
-     * @return List<String> representing the trash can
+     * @return IntSet representing the ids of the planners in the trash can
      */
-    public List<String> getTrashPlanner(){
+    public IntSet getTrashPlanner(){
         return trashPlanner;
     }
 
     /**
      * remove the planner from trash
-     * @param plannerId the String id of the planner to be deleted
+     * @param plannerId the id of the planner to be deleted
      * @return whether the planner is removed or not
      */
-    public boolean removeFromTrash(String plannerId){
-        if(trashPlanner.contains(plannerId)){
-            trashPlanner.remove(plannerId);
-            return true;
-        } else {
-            return false;
+    public boolean removeFromTrash(int plannerId){
+        return trashPlanner.remove(plannerId);
+    }
+
+    /**
+     * Reads a user account written with Java serialization. Older versions kept the planner ids as a List of
+     * Strings, which are converted.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.planners = toIntSet(fields.get("planners", null));
+        this.trashPlanner = toIntSet(fields.get("trashPlanner", null));
+    }
+
+    private static IntSet toIntSet(Object stored) throws InvalidObjectException {
+        if (stored instanceof IntSet) {
+            return (IntSet) stored;
+        }
+        IntSet set = new IntSet();
+        if (stored instanceof List) {
+            for (Object plannerId : (List<?>) stored) {
+                try {
+                    set.add(Integer.parseInt(String.valueOf(plannerId)));
+                } catch (NumberFormatException e) {
+                    throw new InvalidObjectException("Planner id " + plannerId + " is not a number.");
+                }
+            }
+        } else if (stored != null) {
+            throw new InvalidObjectException("Planner ids of type " + stored.getClass().getName() + " cannot be read.");
         }
+        return set;
     }
 }
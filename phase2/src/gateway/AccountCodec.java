@@ -0,0 +1,75 @@
+package gateway;
+
+import entity.*;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary codec for a single Account. A one-byte tag for the type of the account is followed by its dense ID and its
+ * fields. Friends are not written, since they are kept in a FriendGraph; see FriendGraphGateway.
+ * Version 1 did not write the dense ID; accounts read from it get one assigned when they are added to AccountManager.
+ * Before version 3, the planner ids of a user account were written as strings.
+ * Version 4 only changed the account map around the accounts; see AccountMapCodec.
+ * Before version 5, strings were limited to 64 KB; see DataFields.
+ */
+public class AccountCodec implements ICodec<Account> {
+    private static final byte ADMIN = 0;
+    private static final byte REGULAR = 1;
+    private static final byte TEMPORARY = 2;
+    private static final byte TRIAL = 3;
+
+    @Override
+    public int getVersion() {
+        return 5;
+    }
+
+    @Override
+    public void encode(DataOutput out, Account account) throws IOException {
+        switch (account.getAccountType()) {
+            case "admin":
+                out.writeByte(ADMIN);
+                break;
+            case "regular":
+                out.writeByte(REGULAR);
+                break;
+            case "temporary":
+                out.writeByte(TEMPORARY);
+                break;
+            case "trial":
+                out.writeByte(TRIAL);
+                break;
+            default:
+                throw new IOException(String.format("Account type %s is undefined for this program.",
+                        account.getAccountType()));
+        }
+        out.writeInt(account.getId());
+        account.writeTo(out);
+    }
+
+    @Override
+    public Account decode(DataInput in, int version) throws IOException {
+        byte tag = in.readByte();
+        int id = version >= 2 ? in.readInt() : 0;
+        Account account;
+        switch (tag) {
+            case ADMIN:
+                account = new AdminAccount(in);
+                break;
+            case REGULAR:
+                account = new UserAccount(in, version);
+                break;
+            case TEMPORARY:
+                account = new TemporaryAccount(in, version);
+                break;
+            case TRIAL:
+                account = new TrialAccount(in, version);
+                break;
+            default:
+                throw new IOException(String.format("Unknown account tag %d.", tag));
+        }
+        account.setId(id);
+        return account;
+    }
+}
@@ -3,20 +3,27 @@ package gateway;
 import entity.Account;
 import use_case.AccountManager;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An Account Gateway responsible for reading and writing data.
  */
-public class AccountGateway extends Reader<HashMap<String, Account>> {
+public class AccountGateway extends Reader<HashMap<String, Account>> implements IPersistable {
 
     //Assign the file path of data.
     private final String idMapPath;
+    private final ShardedMapFile<String, Account> shards;
+    private final AccountMapCodec codec = new AccountMapCodec();
+    private final int numShards = 16;
     private final String tempPasswordPath = "tempPassword.txt";
 
     private HashMap<String, Account> idToAccount = new HashMap<>();
+    // Set when the stored accounts cannot be read, so that they are not replaced by an empty map on the next save.
+    private boolean readFailed = false;
 
     private final AccountManager am;
 
@@ -27,11 +34,14 @@ public class AccountGateway extends Reader<HashMap<String, Account>> {
     public AccountGateway(AccountManager am) {
         super("data", "phase2/data");
         this.idMapPath = this.folderPath + "/idToAccountMap.ser";
+        this.shards = new ShardedMapFile<>(this, this.folderPath + "/idToAccountMap", this.numShards);
+        this.setCodec(this.codec);
         this.am = am;
     }
 
     /**
-     * Load in the data from database, call this function when initialize an account manager.
+     * Load in the data from database, call this function when initialize an account manager. If the stored accounts
+     * cannot be read, loading fails and this gateway refuses to save, so the stored accounts are left as they are.
      * @return A boolean value representing whether the loading process is successful or not.
      */
     public boolean load() { return this.readMaps(); }
@@ -42,9 +52,56 @@ public class AccountGateway extends Reader<HashMap<String, Account>> {
      * @return A boolean value representing whether the loading process is successful or not.
      */
     public boolean save() {
+        if (this.readFailed) {
+            System.out.println("Accounts were not loaded, so they are not saved.");
+            return false;
+        }
         return this.writeMaps();
     }
 
+    /**
+     * Captures the data to be saved and stages its write in unitOfWork.
+     * @param unitOfWork The UnitOfWork the write is staged in.
+     * @return A boolean value representing whether the data is successfully captured.
+     */
+    @Override
+    public boolean stageSave(UnitOfWork unitOfWork) {
+        if (this.readFailed) {
+            System.out.println("Accounts were not loaded, so they are not saved.");
+            return false;
+        }
+        boolean flag = this.shards.stageSave(unitOfWork, this.idToAccount);
+        if (new File(this.idMapPath).exists()) {
+            unitOfWork.stageDelete(this.idMapPath);
+        }
+        return flag;
+    }
+
+    /**
+     * Records that an account has been created, changed or deleted, so that the next save writes it. Only the shards
+     * of the accounts recorded here are written by a save.
+     * @param retriever A String representing the User ID or Email of the account, or the User ID of a deleted account.
+     */
+    public void markChanged(String retriever) {
+        Account acc = am.findAccount(retriever);
+        String userId = acc == null ? retriever : acc.getUserId();
+        if (acc == null) {
+            this.idToAccount.remove(userId);
+        } else {
+            this.idToAccount.put(userId, acc);
+        }
+        this.shards.markChanged(userId);
+    }
+
+    /**
+     * Upgrades the stored accounts to the current version of their format. See Reader.migrate.
+     * @param listener The listener told about the progress of the migration.
+     * @return A boolean value representing whether the stored accounts are current now.
+     */
+    public boolean migrate(IMigrationListener listener) {
+        return this.shards.exists() ? this.shards.migrate(listener) : super.migrate(this.idMapPath, listener);
+    }
+
     /***
      * Saves tempPassword to a text file.
      * @param tempPassword A string representing the temporary password to be saved.
@@ -56,27 +113,55 @@ public class AccountGateway extends Reader<HashMap<String, Account>> {
         return super.writeTextFile(this.tempPasswordPath, lines);
     }
 
+    /**
+     * Hands on the friendships read with accounts stored by an older version, which kept them in the accounts, so
+     * they can be saved by FriendGraphGateway. Call this function after load or migrate.
+     * @return The user IDs of the friends of every account read from an older version, keyed by user ID.
+     */
+    public Map<String, List<String>> takeLegacyFriendIds() {
+        return this.codec.takeLegacyFriendIds();
+    }
+
     // Private methods.
     private boolean readMaps() {
         try {
-            HashMap<String, Account> hm = super.readSer(this.idMapPath);
-            if (hm == null) {return true;} else {
+            boolean stored = this.shards.exists() || new File(this.idMapPath).exists();
+            HashMap<String, Account> hm = this.shards.exists() ? this.shards.load() : super.readSer(this.idMapPath);
+            if (hm == null && stored) {
+                this.readFailed = true;
+                return false;
+            }
+            if (hm != null) {
                 this.idToAccount = hm;
             }
+            // Accounts read with Java serialization may have kept their friends themselves.
+            for (Account acc: this.idToAccount.values()) {
+                this.codec.rememberLegacyFriendIds(acc);
+            }
+            List<Integer> ids = new ArrayList<>(this.idToAccount.size());
             for (Account acc: this.idToAccount.values()) {
+                ids.add(acc.getId());
+            }
+            am.setIdAllocator(IdLeaseFile.openAllocator(this.folderPath + "/accountIds.hwm", ids));
+            for (Account acc: this.idToAccount.values()) {
+                boolean newId = acc.getId() == 0;
                 am.addAccount(acc);
+                // Accounts of an older version get their dense ID here, which has to be saved with them.
+                if (newId) {
+                    this.shards.markChanged(acc.getUserId());
+                }
             }
             return true;
         } catch (Exception ex) {
             ex.printStackTrace();
+            this.readFailed = true;
             return false;
         }
     }
 
     private boolean writeMaps() {
-        for (Account acc: am.getAllAccount()) {
-            this.idToAccount.put(acc.getUserId(), acc);
-        }
-        return super.writeSer(this.idMapPath, this.idToAccount);
+        // The single account file of older versions is replaced by the shards.
+        File oldMap = new File(this.idMapPath);
+        return this.shards.save(this.idToAccount) && (!oldMap.exists() || oldMap.delete());
     }
 }
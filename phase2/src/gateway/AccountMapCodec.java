@@ -0,0 +1,104 @@
+package gateway;
+
+import entity.Account;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary codec for the map from user id to Account. Before version 4, every account was followed by the user ids of
+ * its friends; friends are saved by FriendGraphGateway now. The friend ids read from an older version, or kept by
+ * accounts read with Java serialization, are remembered until takeLegacyFriendIds hands them on. Maps may be decoded
+ * on several threads at once.
+ */
+public class AccountMapCodec implements ICodec<HashMap<String, Account>> {
+    private static final int PROGRESS_INTERVAL = 1000;
+    private static final int FRIENDS_MOVED_VERSION = 4;
+
+    private final AccountCodec accountCodec = new AccountCodec();
+    private final Map<String, List<String>> legacyFriendIds = new ConcurrentHashMap<>();
+
+    @Override
+    public int getVersion() {
+        return this.accountCodec.getVersion();
+    }
+
+    @Override
+    public void encode(DataOutput out, HashMap<String, Account> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, Account> entry: map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            this.accountCodec.encode(out, entry.getValue());
+            // A map read with Java serialization is written with this codec when it is migrated.
+            this.rememberLegacyFriendIds(entry.getValue());
+        }
+    }
+
+    @Override
+    public HashMap<String, Account> decode(DataInput in, int version) throws IOException {
+        int size = in.readInt();
+        HashMap<String, Account> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            map.put(key, this.accountCodec.decode(in, version));
+            if (version < FRIENDS_MOVED_VERSION) {
+                this.readLegacyFriendIds(in, key);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public void migrate(DataInput in, int version, DataOutput out, String filePath, IMigrationListener listener)
+            throws IOException {
+        int size = in.readInt();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            out.writeUTF(key);
+            this.accountCodec.encode(out, this.accountCodec.decode(in, version));
+            if (version < FRIENDS_MOVED_VERSION) {
+                this.readLegacyFriendIds(in, key);
+            }
+            if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                listener.onProgress(filePath, i + 1, size);
+            }
+        }
+        listener.onProgress(filePath, size, size);
+    }
+
+    /**
+     * Hands on the friend ids read from maps of an older version since the last call.
+     * @return The user ids of the friends of every account read from an older version, keyed by its user id.
+     */
+    public Map<String, List<String>> takeLegacyFriendIds() {
+        Map<String, List<String>> friendIds = new HashMap<>(this.legacyFriendIds);
+        this.legacyFriendIds.clear();
+        return friendIds;
+    }
+
+    /**
+     * Remembers the friends an account read with Java serialization has kept itself, if any.
+     * @param account An account that has been read in full, together with its friends.
+     */
+    void rememberLegacyFriendIds(Account account) {
+        List<String> ids = account.takeLegacyFriendIds();
+        if (!ids.isEmpty()) {
+            this.legacyFriendIds.put(account.getUserId(), ids);
+        }
+    }
+
+    private void readLegacyFriendIds(DataInput in, String userId) throws IOException {
+        int numFriends = in.readInt();
+        List<String> ids = new ArrayList<>(numFriends);
+        for (int j = 0; j < numFriends; j++) {
+            ids.add(in.readUTF());
+        }
+        if (!ids.isEmpty()) {
+            this.legacyFriendIds.put(userId, ids);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package gateway;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses everything written to it in fixed-size blocks. Every block is deflated on its own and written as its
+ * uncompressed length, its compressed length and the compressed bytes; a block of length 0 ends the stream.
+ * BlockInflaterInputStream reads it back one block at a time.
+ */
+class BlockDeflaterOutputStream extends OutputStream {
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final byte[] block;
+    private final byte[] chunk = new byte[8192];
+    private final ByteArrayOutputStream compressedBlock = new ByteArrayOutputStream();
+    private int count;
+
+    /**
+     * Initializes the BlockDeflaterOutputStream.
+     * @param out The stream the blocks are written to.
+     * @param blockSize The number of uncompressed bytes in every block but the last.
+     */
+    BlockDeflaterOutputStream(OutputStream out, int blockSize) {
+        this.out = new DataOutputStream(out);
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (this.count == this.block.length) {
+            this.writeBlock();
+        }
+        this.block[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (this.count == this.block.length) {
+                this.writeBlock();
+            }
+            int n = Math.min(len, this.block.length - this.count);
+            System.arraycopy(b, off, this.block, this.count, n);
+            this.count += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writeBlock();
+        this.out.writeInt(0);
+        this.deflater.end();
+        this.out.close();
+    }
+
+    private void writeBlock() throws IOException {
+        if (this.count == 0) {
+            return;
+        }
+        this.deflater.reset();
+        this.deflater.setInput(this.block, 0, this.count);
+        this.deflater.finish();
+        this.compressedBlock.reset();
+        while (!this.deflater.finished()) {
+            int n = this.deflater.deflate(this.chunk);
+            this.compressedBlock.write(this.chunk, 0, n);
+        }
+        this.out.writeInt(this.count);
+        this.out.writeInt(this.compressedBlock.size());
+        this.compressedBlock.writeTo(this.out);
+        this.count = 0;
+    }
+}
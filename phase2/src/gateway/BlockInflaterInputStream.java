@@ -0,0 +1,101 @@
+package gateway;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads back what BlockDeflaterOutputStream wrote. Only one block is held in memory at a time, so a file can be
+ * decoded while it is being decompressed.
+ */
+class BlockInflaterInputStream extends InputStream {
+    private static final int MAX_BLOCK_SIZE = 1 << 24;
+
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater();
+    private byte[] block = new byte[0];
+    private int pos;
+    private int limit;
+    private boolean ended;
+
+    /**
+     * Initializes the BlockInflaterInputStream.
+     * @param in The stream the blocks are read from.
+     */
+    BlockInflaterInputStream(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (this.pos == this.limit && !this.readBlock()) {
+            return -1;
+        }
+        return this.block[this.pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (this.pos == this.limit && !this.readBlock()) {
+            return -1;
+        }
+        int n = Math.min(len, this.limit - this.pos);
+        System.arraycopy(this.block, this.pos, b, off, n);
+        this.pos += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return this.limit - this.pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.inflater.end();
+        this.in.close();
+    }
+
+    private boolean readBlock() throws IOException {
+        if (this.ended) {
+            return false;
+        }
+        int rawLength = this.in.readInt();
+        if (rawLength == 0) {
+            this.ended = true;
+            return false;
+        }
+        int compressedLength = this.in.readInt();
+        if (rawLength < 0 || rawLength > MAX_BLOCK_SIZE || compressedLength < 0) {
+            throw new IOException("Corrupt compressed block.");
+        }
+        byte[] compressed = new byte[compressedLength];
+        this.in.readFully(compressed);
+        if (this.block.length < rawLength) {
+            this.block = new byte[rawLength];
+        }
+        this.inflater.reset();
+        this.inflater.setInput(compressed);
+        try {
+            int n = 0;
+            while (n < rawLength) {
+                int inflated = this.inflater.inflate(this.block, n, rawLength - n);
+                if (inflated == 0 && (this.inflater.finished() || this.inflater.needsInput())) {
+                    throw new EOFException("Compressed block ended early.");
+                }
+                n += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        }
+        this.pos = 0;
+        this.limit = rawLength;
+        return true;
+    }
+}
@@ -0,0 +1,214 @@
+package gateway;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Commits the changes staged in a UnitOfWork across all gateways as one batch.
+ * A batch is first appended to the commit log, ending with a commit marker, and the commit log is synced to disk
+ * once. Only then are the changes applied to the data files. The data files themselves are synced every few commits,
+ * after which the commit log is emptied. If the program stops part way through, recover replays every batch that
+ * reached its commit marker, so either all or none of the changes of a batch end up on disk.
+ */
+public class CommitLog extends Reader<Object> {
+    private static final int BATCH_MAGIC = 0x42415443;
+    private static final int COMMIT_MARKER = 0x434F4D54;
+
+    private final String logPath;
+    private final int syncInterval = 20;
+    private final Set<String> unsyncedFiles = new HashSet<>();
+    private int numCommits;
+
+    /**
+     * Initializes the CommitLog in the data folder.
+     */
+    public CommitLog() {
+        super("data", "phase2/data");
+        this.logPath = this.folderPath + "/commit.log";
+    }
+
+    /**
+     * @return A new empty UnitOfWork to be committed to this CommitLog.
+     */
+    public UnitOfWork begin() {
+        return new UnitOfWork(this);
+    }
+
+    /**
+     * Commits every change staged in unitOfWork as one batch.
+     * @param unitOfWork The UnitOfWork to be committed.
+     * @return A boolean value representing whether the commit is successful or not.
+     */
+    public synchronized boolean commit(UnitOfWork unitOfWork) {
+        if (unitOfWork.isEmpty()) {
+            return true;
+        }
+        List<UnitOfWork.Change> changes = unitOfWork.getChanges();
+        this.resolveOffsets(changes);
+
+        File log = new File(this.logPath);
+        long logLength = log.length();
+        try (FileOutputStream logOut = new FileOutputStream(log, true)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(logOut));
+            out.writeInt(BATCH_MAGIC);
+            out.writeInt(changes.size());
+            for (UnitOfWork.Change change : changes) {
+                out.writeByte(change.type);
+                out.writeUTF(change.filePath);
+                out.writeLong(change.offset);
+                out.writeInt(change.bytes.length);
+                out.write(change.bytes);
+            }
+            out.writeInt(COMMIT_MARKER);
+            out.flush();
+            logOut.getChannel().force(false);
+        } catch (IOException e) {
+            System.out.println("Saving terminated, data lost.");
+            this.truncateLog(logLength);
+            return false;
+        }
+
+        try {
+            for (UnitOfWork.Change change : changes) {
+                this.apply(change);
+                this.unsyncedFiles.add(change.filePath);
+            }
+        } catch (IOException e) {
+            // The batch is in the commit log, so it will be applied again by recover.
+            e.printStackTrace();
+            return false;
+        }
+        this.numCommits++;
+        if (this.numCommits >= this.syncInterval) {
+            return this.checkpoint();
+        }
+        return true;
+    }
+
+    /**
+     * Applies every complete batch left in the commit log, then empties it. Must be called before any gateway is
+     * loaded.
+     * @return A boolean value representing whether the recovery is successful or not.
+     */
+    public synchronized boolean recover() {
+        File log = new File(this.logPath);
+        if (!log.exists()) {
+            return true;
+        }
+        int numRecovered = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(log)))) {
+            while (true) {
+                List<UnitOfWork.Change> changes = this.readBatch(in);
+                if (changes == null) {
+                    break;
+                }
+                for (UnitOfWork.Change change : changes) {
+                    this.apply(change);
+                    this.unsyncedFiles.add(change.filePath);
+                }
+                numRecovered++;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        if (numRecovered > 0) {
+            System.out.printf("Recovered %d unsaved changes.%n", numRecovered);
+        }
+        return this.checkpoint();
+    }
+
+    private void resolveOffsets(List<UnitOfWork.Change> changes) {
+        Map<String, Long> fileLengths = new HashMap<>();
+        for (UnitOfWork.Change change : changes) {
+            long length = fileLengths.containsKey(change.filePath) ?
+                    fileLengths.get(change.filePath) : new File(change.filePath).length();
+            switch (change.type) {
+                case UnitOfWork.APPEND:
+                    change.offset = length;
+                    fileLengths.put(change.filePath, length + change.bytes.length);
+                    break;
+                case UnitOfWork.WRITE:
+                    fileLengths.put(change.filePath, (long) change.bytes.length);
+                    break;
+                default:
+                    fileLengths.put(change.filePath, 0L);
+            }
+        }
+    }
+
+    private List<UnitOfWork.Change> readBatch(DataInputStream in) throws IOException {
+        try {
+            if (in.readInt() != BATCH_MAGIC) {
+                return null;
+            }
+            int numChanges = in.readInt();
+            List<UnitOfWork.Change> changes = new ArrayList<>(numChanges);
+            for (int i = 0; i < numChanges; i++) {
+                byte type = in.readByte();
+                String filePath = in.readUTF();
+                long offset = in.readLong();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                UnitOfWork.Change change = new UnitOfWork.Change(type, filePath, bytes);
+                change.offset = offset;
+                changes.add(change);
+            }
+            return in.readInt() == COMMIT_MARKER ? changes : null;
+        } catch (EOFException e) {
+            // The program stopped before this batch was committed, so none of it is applied.
+            return null;
+        }
+    }
+
+    private void apply(UnitOfWork.Change change) throws IOException {
+        switch (change.type) {
+            case UnitOfWork.WRITE:
+                try (OutputStream out = new FileOutputStream(change.filePath)) {
+                    out.write(change.bytes);
+                }
+                break;
+            case UnitOfWork.APPEND:
+                // Writing at the offset resolved at commit time makes applying a batch twice harmless.
+                try (RandomAccessFile file = new RandomAccessFile(change.filePath, "rw")) {
+                    file.seek(change.offset);
+                    file.write(change.bytes);
+                    file.setLength(change.offset + change.bytes.length);
+                }
+                break;
+            default:
+                Files.deleteIfExists(Paths.get(change.filePath));
+        }
+    }
+
+    private boolean checkpoint() {
+        try {
+            for (String filePath : this.unsyncedFiles) {
+                if (Files.exists(Paths.get(filePath))) {
+                    try (FileChannel ch = FileChannel.open(Paths.get(filePath), StandardOpenOption.WRITE)) {
+                        ch.force(false);
+                    }
+                }
+            }
+            Files.deleteIfExists(Paths.get(this.logPath));
+            this.unsyncedFiles.clear();
+            this.numCommits = 0;
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void truncateLog(long length) {
+        try (RandomAccessFile file = new RandomAccessFile(this.logPath, "rw")) {
+            file.setLength(length);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
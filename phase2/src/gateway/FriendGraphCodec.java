@@ -0,0 +1,48 @@
+package gateway;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary codec for the friendships between accounts, as a map from the user id of an account to the user ids of some
+ * of its friends. Every friendship is written once, under either of its accounts.
+ */
+public class FriendGraphCodec implements ICodec<HashMap<String, List<String>>> {
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+
+    @Override
+    public void encode(DataOutput out, HashMap<String, List<String>> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, List<String>> entry: map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (String friendId: entry.getValue()) {
+                out.writeUTF(friendId);
+            }
+        }
+    }
+
+    @Override
+    public HashMap<String, List<String>> decode(DataInput in, int version) throws IOException {
+        int size = in.readInt();
+        HashMap<String, List<String>> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            int numFriends = in.readInt();
+            List<String> friendIds = new ArrayList<>(numFriends);
+            for (int j = 0; j < numFriends; j++) {
+                friendIds.add(in.readUTF());
+            }
+            map.put(key, friendIds);
+        }
+        return map;
+    }
+}
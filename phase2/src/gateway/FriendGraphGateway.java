@@ -0,0 +1,130 @@
+package gateway;
+
+import entity.Account;
+import use_case.AccountManager;
+import use_case.FriendGraph;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A gateway that saves the friendships of a FriendGraph in their own file, apart from the accounts. The file refers to
+ * accounts by their user IDs, which are translated to and from dense IDs with an AccountManager, so the accounts must
+ * be loaded first.
+ */
+public class FriendGraphGateway extends Reader<HashMap<String, List<String>>> implements IPersistable {
+
+    private final String filePath;
+
+    private final FriendGraph friendGraph;
+    private final AccountManager am;
+    // Saving before the friendships are loaded would replace the stored ones with an empty graph.
+    private boolean loaded = false;
+
+    /**
+     * Initialize the Gateway with a FriendGraph.
+     * @param friendGraph The FriendGraph that is loaded and saved.
+     * @param am The AccountManager that stores the accounts of friendGraph.
+     */
+    public FriendGraphGateway(FriendGraph friendGraph, AccountManager am) {
+        super("data", "phase2/data");
+        this.filePath = this.folderPath + "/friendGraph.ser";
+        this.setCodec(new FriendGraphCodec());
+        this.friendGraph = friendGraph;
+        this.am = am;
+    }
+
+    /**
+     * Load in the friendships, call this function after the accounts are loaded. If no friendships have been saved on
+     * their own yet, the friendships read with the accounts of an older version are loaded instead, and saved in their
+     * own file at once, since the next save of the accounts drops them from the account file. Until this function
+     * succeeds, this gateway refuses to save.
+     * @param legacyFriendIds The user IDs of the friends of accounts read from an older version, keyed by user ID.
+     * @return A boolean value representing whether the loading process is successful or not.
+     */
+    public boolean load(Map<String, List<String>> legacyFriendIds) {
+        HashMap<String, List<String>> friendIds;
+        boolean legacy = !new File(this.filePath).exists();
+        if (!legacy) {
+            friendIds = super.readSer(this.filePath);
+            if (friendIds == null) {
+                return false;
+            }
+        } else {
+            friendIds = new HashMap<>(legacyFriendIds);
+        }
+        for (Map.Entry<String, List<String>> entry: friendIds.entrySet()) {
+            int id = this.am.getId(entry.getKey());
+            for (String friendId: entry.getValue()) {
+                this.friendGraph.addFriendship(id, this.am.getId(friendId));
+            }
+        }
+        this.loaded = true;
+        return !legacy || this.migrate(legacyFriendIds);
+    }
+
+    /**
+     * Save the friendships to the database.
+     * @return A boolean value representing whether the saving process is successful or not.
+     */
+    public boolean save() {
+        if (!this.loaded) {
+            System.out.println("Friendships were not loaded, so they are not saved.");
+            return false;
+        }
+        return super.writeSer(this.filePath, this.capture());
+    }
+
+    /**
+     * Captures the data to be saved and stages its write in unitOfWork.
+     * @param unitOfWork The UnitOfWork the write is staged in.
+     * @return A boolean value representing whether the data is successfully captured.
+     */
+    @Override
+    public boolean stageSave(UnitOfWork unitOfWork) {
+        if (!this.loaded) {
+            System.out.println("Friendships were not loaded, so they are not saved.");
+            return false;
+        }
+        return super.stageWrite(unitOfWork, this.filePath, this.capture());
+    }
+
+    /**
+     * Saves the friendships read with the accounts of an older version in their own file, unless it exists already.
+     * Call this function after the accounts are migrated.
+     * @param legacyFriendIds The user IDs of the friends of accounts read from an older version, keyed by user ID.
+     * @return A boolean value representing whether the friendships are saved on their own now.
+     */
+    public boolean migrate(Map<String, List<String>> legacyFriendIds) {
+        if (new File(this.filePath).exists() || legacyFriendIds.isEmpty()) {
+            return true;
+        }
+        return super.writeSer(this.filePath, new HashMap<>(legacyFriendIds));
+    }
+
+    // Private methods.
+    private HashMap<String, List<String>> capture() {
+        HashMap<String, List<String>> friendIds = new HashMap<>();
+        for (int id: this.friendGraph.getAccounts()) {
+            Account account = this.am.findAccount(id);
+            if (account == null) {
+                continue;
+            }
+            // Every friendship is written once, under the account with the smaller dense ID.
+            List<String> ids = new ArrayList<>();
+            for (int friendId: this.friendGraph.getFriends(id)) {
+                Account friend = this.am.findAccount(friendId);
+                if (friendId > id && friend != null) {
+                    ids.add(friend.getUserId());
+                }
+            }
+            if (!ids.isEmpty()) {
+                friendIds.put(account.getUserId(), ids);
+            }
+        }
+        return friendIds;
+    }
+}
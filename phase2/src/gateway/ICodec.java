@@ -0,0 +1,51 @@
+package gateway;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The interface of a hand-written binary codec, used by a gateway instead of default Java serialization.
+ * @param <T> Type of the objects encoded and decoded by the codec.
+ */
+public interface ICodec<T> {
+    /**
+     * @return The version of the format this codec writes. It is stored in the header of every file written with
+     * this codec, and handed back to decode when the file is read.
+     */
+    int getVersion();
+
+    /**
+     * Writes obj to out.
+     * @param out The output obj is written to.
+     * @param obj The object to be written.
+     * @throws IOException If obj cannot be written to out.
+     */
+    void encode(DataOutput out, T obj) throws IOException;
+
+    /**
+     * Reads an object written by encode from in.
+     * @param in The input the object is read from.
+     * @param version The version of the format the object was written in.
+     * @return The object read from in.
+     * @throws IOException If no object can be read from in.
+     */
+    T decode(DataInput in, int version) throws IOException;
+
+    /**
+     * Copies an object written by encode in an older version from in to out in the current version. By default the
+     * whole object is decoded and encoded again; codecs of collections copy one record at a time instead, so that
+     * only one record is held in memory.
+     * @param in The input the object is read from.
+     * @param version The version of the format the object was written in.
+     * @param out The output the object is written to.
+     * @param filePath A String representing the file being migrated, passed on to listener.
+     * @param listener The listener told about the progress of the migration.
+     * @throws IOException If the object cannot be read from in or written to out.
+     */
+    default void migrate(DataInput in, int version, DataOutput out, String filePath, IMigrationListener listener)
+            throws IOException {
+        this.encode(out, this.decode(in, version));
+        listener.onProgress(filePath, 1, 1);
+    }
+}
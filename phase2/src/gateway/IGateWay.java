@@ -19,4 +19,18 @@ public interface IGateWay<T>{
      */
     T readSer(String filePath);
 
+    /**
+     * Opt in to a binary codec: files will be written with codec instead of default Java serialization. Files written
+     * before opting in can still be read.
+     * @param codec The codec used to write and read objects of type T, null to use default Java serialization.
+     */
+    void setCodec(ICodec<T> codec);
+
+    /**
+     * Opt in to compression: files will be written as deflated blocks. Files written before opting in can still be
+     * read, and compressed files can still be read after opting out.
+     * @param compressed Whether files are written compressed.
+     */
+    void setCompressed(boolean compressed);
+
 }
@@ -0,0 +1,15 @@
+package gateway;
+
+/**
+ * The interface of a listener told about the progress of a migration.
+ */
+public interface IMigrationListener {
+    /**
+     * Called every time a batch of records of a file has been migrated, and once the whole file is done.
+     * May be called from several threads at once when shards are migrated in parallel.
+     * @param filePath A String representing the file being migrated.
+     * @param recordsDone Number of records of the file migrated so far.
+     * @param totalRecords Number of records in the file.
+     */
+    void onProgress(String filePath, int recordsDone, int totalRecords);
+}
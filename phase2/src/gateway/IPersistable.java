@@ -0,0 +1,15 @@
+package gateway;
+
+/**
+ * The interface of a gateway whose save can be staged in a UnitOfWork, so it is written together with the changes of
+ * other gateways as one batch.
+ */
+public interface IPersistable {
+    /**
+     * Captures the data to be saved and stages its write in unitOfWork. Must be called on the thread that changes the
+     * data.
+     * @param unitOfWork The UnitOfWork the write is staged in.
+     * @return A boolean value representing whether the data is successfully captured.
+     */
+    boolean stageSave(UnitOfWork unitOfWork);
+}
@@ -0,0 +1,76 @@
+package gateway;
+
+import use_case.IIdLeaseStore;
+import use_case.IdAllocator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collection;
+
+/**
+ * Keeps the high-water mark of an IdAllocator in a small file, which is synced to disk on every write.
+ */
+public class IdLeaseFile implements IIdLeaseStore {
+    private static final int BLOCK_SIZE = 64;
+
+    private final String filePath;
+
+    /**
+     * Initializes the IdLeaseFile.
+     * @param filePath A String representing the file path of the high-water mark.
+     */
+    public IdLeaseFile(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Creates an IdAllocator whose high-water mark is kept in the file at filePath, and which never hands out any of
+     * usedIds.
+     * @param filePath A String representing the file path of the high-water mark.
+     * @param usedIds The ids used by the data that was loaded.
+     * @return The IdAllocator.
+     */
+    static IdAllocator openAllocator(String filePath, Collection<Integer> usedIds) {
+        IdAllocator allocator = new IdAllocator(new IdLeaseFile(filePath), BLOCK_SIZE);
+        for (int id : usedIds) {
+            allocator.advancePast(id);
+        }
+        return allocator;
+    }
+
+    /**
+     * Reads the stored high-water mark.
+     * @return The stored high-water mark, or 0 if the file does not exist or cannot be read.
+     */
+    @Override
+    public long read() {
+        File file = new File(this.filePath);
+        if (file.length() < Long.BYTES) {
+            return 0;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return raf.readLong();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * Stores mark as the new high-water mark and syncs it to disk.
+     * @param mark The new high-water mark.
+     * @return A boolean value representing whether the mark is successfully stored.
+     */
+    @Override
+    public boolean write(long mark) {
+        try (RandomAccessFile raf = new RandomAccessFile(this.filePath, "rw")) {
+            raf.writeLong(mark);
+            raf.getChannel().force(true);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package gateway;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary codec for a map from integer ids to entities, e.g., the planner map or the template map. Keys are written
+ * as primitive ints and every value is written with the given entity codec.
+ * @param <V> Type of the entities in the map.
+ */
+public class IntMapCodec<V> implements ICodec<HashMap<Integer, V>> {
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final ICodec<V> valueCodec;
+
+    /**
+     * Initializes the IntMapCodec with the codec of its values.
+     * @param valueCodec The codec used for every entity in the map.
+     */
+    public IntMapCodec(ICodec<V> valueCodec) {
+        this.valueCodec = valueCodec;
+    }
+
+    @Override
+    public int getVersion() {
+        return this.valueCodec.getVersion();
+    }
+
+    @Override
+    public void encode(DataOutput out, HashMap<Integer, V> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<Integer, V> entry: map.entrySet()) {
+            out.writeInt(entry.getKey());
+            this.valueCodec.encode(out, entry.getValue());
+        }
+    }
+
+    @Override
+    public HashMap<Integer, V> decode(DataInput in, int version) throws IOException {
+        int size = in.readInt();
+        HashMap<Integer, V> map = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            int key = in.readInt();
+            map.put(key, this.valueCodec.decode(in, version));
+        }
+        return map;
+    }
+
+    @Override
+    public void migrate(DataInput in, int version, DataOutput out, String filePath, IMigrationListener listener)
+            throws IOException {
+        int size = in.readInt();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(in.readInt());
+            this.valueCodec.encode(out, this.valueCodec.decode(in, version));
+            if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                listener.onProgress(filePath, i + 1, size);
+            }
+        }
+        listener.onProgress(filePath, size, size);
+    }
+}
@@ -0,0 +1,267 @@
+package gateway;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * An append-only journal of changes made to a map of serializable entities.
+ * Every record is one put or one delete of a single entry, so the cost of writing a record depends on the size of the
+ * change rather than the size of the whole map. The journal is meant to sit next to a snapshot file: on load, the
+ * snapshot is read first and the journal is replayed on top of it; on checkpoint, a new snapshot is written and the
+ * journal is truncated. Records can also be encoded up front and staged in a UnitOfWork, so they are written
+ * together with the other changes of that UnitOfWork.
+ * @param <K> Type of the keys of the journaled map.
+ * @param <V> Type of the values of the journaled map.
+ */
+public class Journal<K extends Serializable, V extends Serializable> {
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private final String logPath;
+    // Updated by the thread that commits staged appends, read by the thread that stages them.
+    private volatile int numRecords;
+
+    /**
+     * Initializes the Journal with the path of its log file.
+     * @param logPath A String representing the file path of the log file.
+     */
+    public Journal(String logPath) {
+        this.logPath = logPath;
+        this.numRecords = 0;
+    }
+
+    /**
+     * @return Number of records appended to or replayed from the log since it was last truncated.
+     */
+    public int size() {
+        return this.numRecords;
+    }
+
+    /**
+     * Appends a record saying that key now maps to value.
+     * @param key The key of the changed entry.
+     * @param value The new value of the changed entry.
+     * @return A boolean value representing whether the record is successfully appended.
+     */
+    public boolean appendPut(K key, V value) {
+        return this.append(this.encodePut(key, value));
+    }
+
+    /**
+     * Appends a record saying that key has been removed.
+     * @param key The key of the removed entry.
+     * @return A boolean value representing whether the record is successfully appended.
+     */
+    public boolean appendDelete(K key) {
+        return this.append(this.encodeDelete(key));
+    }
+
+    /**
+     * Encodes a record saying that key now maps to value, without appending it.
+     * @param key The key of the changed entry.
+     * @param value The new value of the changed entry.
+     * @return The encoded record, or null if value can not be encoded.
+     */
+    public byte[] encodePut(K key, V value) {
+        return this.encode(PUT, key, value);
+    }
+
+    /**
+     * Encodes a record saying that key has been removed, without appending it.
+     * @param key The key of the removed entry.
+     * @return The encoded record, or null if key can not be encoded.
+     */
+    public byte[] encodeDelete(K key) {
+        return this.encode(DELETE, key, null);
+    }
+
+    /**
+     * Stages appending records, as returned by encodePut and encodeDelete, to the log. They are counted once
+     * unitOfWork is committed.
+     * @param unitOfWork The UnitOfWork the records are staged in.
+     * @param records The encoded records, in the order they were made.
+     */
+    public void stageAppend(UnitOfWork unitOfWork, List<byte[]> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (byte[] record : records) {
+            bytes.write(record, 0, record.length);
+        }
+        unitOfWork.stageAppend(this.logPath, bytes.toByteArray());
+        int numAppended = records.size();
+        unitOfWork.onCommit(() -> this.numRecords += numAppended);
+    }
+
+    /**
+     * Stages emptying the log. Stage this right after a snapshot containing every journaled change. The log counts as
+     * empty once unitOfWork is committed.
+     * @param unitOfWork The UnitOfWork the truncation is staged in.
+     */
+    public void stageTruncate(UnitOfWork unitOfWork) {
+        unitOfWork.stageDelete(this.logPath);
+        unitOfWork.onCommit(() -> this.numRecords = 0);
+    }
+
+    /**
+     * Applies every complete record in the log to target, in the order they were appended. A record that was only
+     * partially written (e.g., the program was killed in the middle of an append) ends the replay and is cut off. A
+     * complete record that cannot be read (e.g., its class has changed) ends the replay too; the whole log is then
+     * copied to a file with the suffix .outdated before that record and the ones after it are cut off. Every record
+     * holds the full new value of its entry, so replaying a record that is already part of the snapshot does not change
+     * target.
+     * @param target The map the records will be applied to, normally the map read in from the latest snapshot.
+     * @param replayed Called with the key of every record applied to target.
+     * @return Number of records applied to target.
+     */
+    public int replay(Map<K, V> target, Consumer<K> replayed) {
+        this.numRecords = this.replay(new File(this.logPath), target, replayed);
+        return this.numRecords;
+    }
+
+    /**
+     * Empties the log. Call this right after a snapshot containing every journaled change has been written.
+     * @return A boolean value representing whether the log is successfully truncated.
+     */
+    public boolean truncate() {
+        File log = new File(this.logPath);
+        if (!log.exists() || log.delete()) {
+            this.numRecords = 0;
+            return true;
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int replay(File log, Map<K, V> target, Consumer<K> replayed) {
+        int numReplayed = 0;
+        if (!log.exists()) {
+            return 0;
+        }
+        // The end of the last record that was read and applied in full.
+        long validLength = 0;
+        long logLength = log.length();
+        boolean unreadable = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(log)))) {
+            while (true) {
+                byte op;
+                byte[] body;
+                try {
+                    op = in.readByte();
+                    int bodyLength = in.readInt();
+                    if (bodyLength < 0 || bodyLength > logLength - validLength - 5) {
+                        break;
+                    }
+                    body = new byte[bodyLength];
+                    in.readFully(body);
+                } catch (EOFException e) {
+                    break;
+                }
+                K key;
+                V value = null;
+                try {
+                    ObjectInputStream recordIn = new ObjectInputStream(new ByteArrayInputStream(body));
+                    key = (K) recordIn.readObject();
+                    if (op == PUT) {
+                        value = (V) recordIn.readObject();
+                    }
+                } catch (IOException | ClassNotFoundException e) {
+                    // The record was written in full, so it is not a torn tail and must not be cut off unseen.
+                    System.out.printf("Journal record cannot be read: %s%n", e);
+                    unreadable = true;
+                    break;
+                }
+                if (op == PUT) {
+                    target.put(key, value);
+                } else {
+                    target.remove(key);
+                }
+                replayed.accept(key);
+                numReplayed++;
+                validLength += 5 + body.length;
+            }
+        } catch (IOException e) {
+            System.out.println("Journal cannot be read, records after the last snapshot are not replayed.");
+            return numReplayed;
+        }
+        if (unreadable && !this.setAside(log)) {
+            // The log is kept as it is; appends after the unreadable record are not replayed until it is fixed.
+            return numReplayed;
+        }
+        // Cut off a torn tail, or the records from an unreadable one on, so records appended from now on are not
+        // hidden behind it.
+        if (validLength < logLength) {
+            this.cutTo(log, validLength);
+        }
+        return numReplayed;
+    }
+
+    /**
+     * Keeps a copy of the whole log next to it, as Reader.setAside does with an outdated database, before the records
+     * that cannot be read are cut off.
+     */
+    private boolean setAside(File log) {
+        Path outdated = Paths.get(log.getPath() + ".outdated");
+        try {
+            Files.copy(log.toPath(), outdated, StandardCopyOption.REPLACE_EXISTING);
+            System.out.printf("Journal outdated, copied to %s, records from the unreadable one on are discarded.%n",
+                    outdated);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void cutTo(File log, long length) {
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.getChannel().truncate(length);
+            file.getChannel().force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private byte[] encode(byte op, K key, V value) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            ObjectOutputStream recordOut = new ObjectOutputStream(body);
+            recordOut.writeObject(key);
+            if (op == PUT) {
+                recordOut.writeObject(value);
+            }
+            recordOut.close();
+
+            ByteArrayOutputStream record = new ByteArrayOutputStream(body.size() + 5);
+            DataOutputStream out = new DataOutputStream(record);
+            out.writeByte(op);
+            out.writeInt(body.size());
+            body.writeTo(out);
+            return record.toByteArray();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private boolean append(byte[] record) {
+        if (record == null) {
+            return false;
+        }
+        try (OutputStream out = new FileOutputStream(this.logPath, true)) {
+            out.write(record);
+            this.numRecords++;
+            return true;
+        } catch (IOException e) {
+            System.out.println("Saving terminated, data lost.");
+            return false;
+        }
+    }
+}
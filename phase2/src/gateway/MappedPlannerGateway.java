@@ -0,0 +1,101 @@
+package gateway;
+
+import entity.Planner;
+import use_case.PlannerManager;
+
+/**
+ * A Planner gateway that keeps every planner as its own record in a memory-mapped file, instead of one serialized
+ * map. Loading only reads the id to offset index; a planner is deserialized the first time PlannerManager asks
+ * for it.
+ * This gateway is experimental: it is only used by PlannerController(true), and its saves are written straight to
+ * the store instead of through UnitOfWork and CommitLog.
+ */
+public class MappedPlannerGateway extends PlannerGateway {
+
+    private final MappedRecordStore<Planner> store;
+
+    private final PlannerManager pm;
+
+    /** Initialize the mapped Planner gateway with a PlannerManager.
+     *
+     * @param pm A PlannerManager object.
+     */
+    public MappedPlannerGateway(PlannerManager pm) {
+        super(pm);
+        this.store = new MappedRecordStore<>(this.folderPath + "/planners.dat", this.folderPath + "/planners.idx");
+        this.pm = pm;
+    }
+
+    /**
+     * Load in the data from database, call this function when initialize an Planner Manager.
+     * The first time this gateway is used, the planners in the serialized planner map are copied into records.
+     * @return A boolean value representing whether the loading process is successful or not.
+     */
+    @Override
+    public boolean load() {
+        boolean imported = true;
+        if (!this.store.exists()) {
+            imported = super.load() && this.store.open();
+            for (Planner planner: pm.getAllPlanner()) {
+                imported = this.store.put(planner.getID(), planner) && imported;
+            }
+            imported = imported && this.store.compact();
+        }
+        if (!imported || !this.store.open()) {
+            return false;
+        }
+        pm.setIdToPlanner(this.store.asMap());
+        pm.setIdAllocator(IdLeaseFile.openAllocator(this.folderPath + "/plannerIds.hwm", this.store.asMap().keySet()));
+        pm.setRepository(new MappedRepository<>(this.store));
+        return true;
+    }
+
+    /**
+     * Save the data to the database. Every change is already written by saveChange, so this only compacts the
+     * record file.
+     * @return A boolean value representing whether the saving process is successful or not.
+     */
+    @Override
+    public boolean save() {
+        return this.store.compact();
+    }
+
+    /**
+     * Every change is already written by stageChange, so there is nothing to stage.
+     * @param unitOfWork The UnitOfWork the write is staged in.
+     * @return true.
+     */
+    @Override
+    public boolean stageSave(UnitOfWork unitOfWork) {
+        return true;
+    }
+
+    /**
+     * Records are written in place, so a change is saved right away, the same as saveChange.
+     * @param id An integer representing the id of the planner that has changed.
+     * @return A boolean value representing whether the saving process is successful or not.
+     */
+    @Override
+    public boolean stageChange(int id) {
+        return this.saveChange(id);
+    }
+
+    /**
+     * @return false, since records are never journaled.
+     */
+    @Override
+    public boolean needsCheckpoint() {
+        return false;
+    }
+
+    /**
+     * Save a single planner to the database by appending its record, call this function after the planner with id is
+     * created, changed or deleted.
+     * @param id An integer representing the id of the planner that has changed.
+     * @return A boolean value representing whether the saving process is successful or not.
+     */
+    @Override
+    public boolean saveChange(int id) {
+        return pm.persist(id);
+    }
+}
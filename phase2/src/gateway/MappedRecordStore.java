@@ -0,0 +1,377 @@
+package gateway;
+
+import use_case.IIntObjectMap;
+import use_case.IntObjectMap;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * A record-oriented store that keeps every entity as its own length-prefixed record in a memory-mapped data file,
+ * together with a persisted index from entity id to record offset.
+ * Opening the store only reads the index, entities are deserialized the first time they are asked for, and looking
+ * up an entity only touches the pages holding its record.
+ * Both files are append-only: a changed entity is appended as a new record and its index entry is appended after it,
+ * so the latest index entry of an id always wins. compact() writes both files again with only the live records, into
+ * temporary files that are moved over the old ones, so a crash during compaction leaves a readable store.
+ *
+ * This store is experimental: it is only used by MappedPlannerGateway, which PlannerController uses when it is
+ * created with useMappedStore set, and its writes do not go through UnitOfWork or CommitLog.
+ * @param <V> Type of the entities stored.
+ */
+public class MappedRecordStore<V extends Serializable> {
+    private static final int INDEX_ENTRY_SIZE = Integer.BYTES + Long.BYTES;
+    private static final long DELETED = -1;
+
+    private final Path dataPath;
+    private final Path indexPath;
+    private final Path compactedDataPath;
+    private final Path compactedIndexPath;
+
+    private final Map<Integer, Long> idToOffset = new HashMap<>();
+    private final IntObjectMap<V> cache = new IntObjectMap<>();
+    private final Set<Integer> ids = new TreeSet<>();
+    private MappedByteBuffer data;
+    private long mappedSize;
+
+    /**
+     * Initializes the MappedRecordStore with the paths of its two files.
+     * @param dataPath A String representing the file path of the record file.
+     * @param indexPath A String representing the file path of the index file.
+     */
+    public MappedRecordStore(String dataPath, String indexPath) {
+        this.dataPath = Paths.get(dataPath);
+        this.indexPath = Paths.get(indexPath);
+        this.compactedDataPath = Paths.get(dataPath + ".compact");
+        this.compactedIndexPath = Paths.get(indexPath + ".compact");
+    }
+
+    /**
+     * @return true iff the index file of this store exists on disk.
+     */
+    public boolean exists() {
+        return Files.exists(this.indexPath) || Files.exists(this.compactedIndexPath);
+    }
+
+    /**
+     * Reads the index into memory and maps the record file. No entity is deserialized.
+     * @return A boolean value representing whether the opening process is successful or not.
+     */
+    public boolean open() {
+        this.idToOffset.clear();
+        this.cache.clear();
+        this.ids.clear();
+        try {
+            this.recoverCompaction();
+            if (Files.exists(this.indexPath)) {
+                try (FileChannel ch = FileChannel.open(this.indexPath, StandardOpenOption.READ)) {
+                    MappedByteBuffer index = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                    while (index.remaining() >= INDEX_ENTRY_SIZE) {
+                        int id = index.getInt();
+                        long offset = index.getLong();
+                        if (offset == DELETED) {
+                            this.idToOffset.remove(id);
+                        } else {
+                            this.idToOffset.put(id, offset);
+                        }
+                    }
+                }
+            }
+            this.ids.addAll(this.idToOffset.keySet());
+            return this.remap();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * @return Number of entities in this store, including the ones not written to disk yet.
+     */
+    public int size() {
+        return this.ids.size();
+    }
+
+    /**
+     * Returns the entity with id, deserializing its record on first access.
+     * @param id An integer representing the id of the entity.
+     * @return The entity with id, null if there is no such entity.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        V value = this.cache.get(id);
+        if (value != null || !this.ids.contains(id) || !this.idToOffset.containsKey(id)) {
+            return value;
+        }
+        long offset = this.idToOffset.get(id);
+        try {
+            if (offset + Integer.BYTES > this.mappedSize) {
+                this.remap();
+            }
+            ByteBuffer record = this.data.duplicate();
+            record.position((int) offset);
+            byte[] body = new byte[record.getInt()];
+            record.get(body);
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(body));
+            value = (V) in.readObject();
+            in.close();
+            this.cache.put(id, value);
+            return value;
+        } catch (IOException | ClassNotFoundException e) {
+            System.out.println("Please check if the casting type is the correct type ");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Writes value as the latest record of id.
+     * @param id An integer representing the id of the entity.
+     * @param value The entity to be written.
+     * @return A boolean value representing whether the writing process is successful or not.
+     */
+    public boolean put(int id, V value) {
+        try {
+            ByteBuffer record = encodeRecord(value);
+            long offset;
+            try (FileChannel ch = FileChannel.open(this.dataPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                offset = ch.size();
+                writeFully(ch, record);
+            }
+            if (!this.appendIndexEntry(id, offset)) {
+                return false;
+            }
+            this.idToOffset.put(id, offset);
+            this.cache.put(id, value);
+            this.ids.add(id);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Saving terminated, data lost.");
+            return false;
+        }
+    }
+
+    /**
+     * Removes the entity with id from this store.
+     * @param id An integer representing the id of the entity.
+     * @return A boolean value representing whether the removal is successfully written.
+     */
+    public boolean delete(int id) {
+        this.cache.remove(id);
+        this.ids.remove(id);
+        if (this.idToOffset.remove(id) == null) {
+            return true;
+        }
+        return this.appendIndexEntry(id, DELETED);
+    }
+
+    /**
+     * Rewrites the record file and the index file so they only contain the latest record of every live entity. Both
+     * files are written in full to temporary files first; the record file is then moved over the old one, and the
+     * index file after it. open() finishes a compaction that was interrupted between the two moves.
+     * @return A boolean value representing whether the compaction is successful or not.
+     */
+    public boolean compact() {
+        List<Integer> liveIds = new ArrayList<>(this.idToOffset.keySet());
+        liveIds.retainAll(this.ids);
+        Collections.sort(liveIds);
+        Map<Integer, Long> newOffsets = new HashMap<>();
+        try {
+            try (FileChannel dataOut = FileChannel.open(this.compactedDataPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 FileChannel indexOut = FileChannel.open(this.compactedIndexPath, StandardOpenOption.CREATE,
+                         StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (int id : liveIds) {
+                    V value = this.get(id);
+                    if (value == null) {
+                        throw new IOException("Record " + id + " cannot be read.");
+                    }
+                    long offset = dataOut.position();
+                    writeFully(dataOut, encodeRecord(value));
+                    writeFully(indexOut, encodeIndexEntry(id, offset));
+                    newOffsets.put(id, offset);
+                }
+                dataOut.force(false);
+                indexOut.force(false);
+            }
+            Files.move(this.compactedDataPath, this.dataPath, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            Files.move(this.compactedIndexPath, this.indexPath, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+            // The old files are untouched unless the record file was moved already, which open() recovers from.
+            return false;
+        }
+        this.idToOffset.clear();
+        this.idToOffset.putAll(newOffsets);
+        try {
+            return this.remap();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Returns a Map view of this store. Reading from the view deserializes records on demand. Adding to or removing
+     * from the view only changes what is in memory, call put() or delete() to write the change.
+     * @return A Map from entity id to entity backed by this store.
+     */
+    public IIntObjectMap<V> asMap() {
+        return new MapView();
+    }
+
+    private class MapView extends AbstractMap<Integer, V> implements IIntObjectMap<V> {
+        @Override
+        public V get(int key) {
+            return MappedRecordStore.this.get(key);
+        }
+
+        @Override
+        public boolean containsKey(int key) {
+            return ids.contains(key);
+        }
+
+        @Override
+        public V put(int key, V value) {
+            V old = this.get(key);
+            cache.put(key, value);
+            ids.add(key);
+            return old;
+        }
+
+        @Override
+        public V remove(int key) {
+            V old = this.get(key);
+            cache.remove(key);
+            ids.remove(key);
+            return old;
+        }
+
+        @Override
+        public V get(Object key) {
+            return key instanceof Integer ? this.get(((Integer) key).intValue()) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return ids.contains(key);
+        }
+
+        @Override
+        public V put(Integer key, V value) {
+            return this.put(key.intValue(), value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return key instanceof Integer ? this.remove(((Integer) key).intValue()) : null;
+        }
+
+        @Override
+        public int size() {
+            return ids.size();
+        }
+
+        @Override
+        public Set<Integer> keySet() {
+            return Collections.unmodifiableSet(ids);
+        }
+
+        @Override
+        public Set<Entry<Integer, V>> entrySet() {
+            return new AbstractSet<Entry<Integer, V>>() {
+                @Override
+                public Iterator<Entry<Integer, V>> iterator() {
+                    Iterator<Integer> it = new ArrayList<>(ids).iterator();
+                    return new Iterator<Entry<Integer, V>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Integer, V> next() {
+                            int id = it.next();
+                            return new SimpleImmutableEntry<>(id, MappedRecordStore.this.get(id));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ids.size();
+                }
+            };
+        }
+    }
+
+    private boolean appendIndexEntry(int id, long offset) {
+        try (FileChannel ch = FileChannel.open(this.indexPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeFully(ch, encodeIndexEntry(id, offset));
+            return true;
+        } catch (IOException e) {
+            System.out.println("Saving terminated, data lost.");
+            return false;
+        }
+    }
+
+    /**
+     * Finishes or undoes a compaction that was interrupted. If the compacted index file is there without the
+     * compacted record file, the record file was already moved, so the index has to follow it; if both are there,
+     * no file was moved, and the old files are still whole.
+     */
+    private void recoverCompaction() throws IOException {
+        if (!Files.exists(this.compactedIndexPath)) {
+            Files.deleteIfExists(this.compactedDataPath);
+        } else if (Files.exists(this.compactedDataPath)) {
+            Files.delete(this.compactedDataPath);
+            Files.delete(this.compactedIndexPath);
+        } else {
+            Files.move(this.compactedIndexPath, this.indexPath, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private ByteBuffer encodeRecord(V value) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(body);
+        out.writeObject(value);
+        out.close();
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + body.size());
+        record.putInt(body.size()).put(body.toByteArray()).flip();
+        return record;
+    }
+
+    private static ByteBuffer encodeIndexEntry(int id, long offset) {
+        ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        entry.putInt(id).putLong(offset).flip();
+        return entry;
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            ch.write(buffer);
+        }
+    }
+
+    private boolean remap() throws IOException {
+        if (!Files.exists(this.dataPath)) {
+            this.data = null;
+            this.mappedSize = 0;
+            return true;
+        }
+        try (FileChannel ch = FileChannel.open(this.dataPath, StandardOpenOption.READ)) {
+            this.mappedSize = ch.size();
+            this.data = ch.map(FileChannel.MapMode.READ_ONLY, 0, this.mappedSize);
+            return true;
+        }
+    }
+}
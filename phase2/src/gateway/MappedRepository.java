@@ -0,0 +1,60 @@
+package gateway;
+
+import use_case.IRepository;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A repository over a MappedRecordStore: every entity is its own record, read on first access and written in place.
+ * @param <V> Type of the entities.
+ */
+public class MappedRepository<V extends Serializable> implements IRepository<Integer, V> {
+
+    private final MappedRecordStore<V> store;
+
+    /**
+     * Initializes the MappedRepository over an opened store.
+     * @param store The MappedRecordStore holding the entities.
+     */
+    public MappedRepository(MappedRecordStore<V> store) {
+        this.store = store;
+    }
+
+    @Override
+    public V get(Integer key) {
+        return this.store.get(key);
+    }
+
+    @Override
+    public boolean put(Integer key, V value) {
+        return this.store.put(key, value);
+    }
+
+    @Override
+    public boolean delete(Integer key) {
+        return this.store.delete(key);
+    }
+
+    @Override
+    public void scan(BiConsumer<Integer, V> visitor) {
+        for (Integer id : new ArrayList<>(this.store.asMap().keySet())) {
+            visitor.accept(id, this.store.get(id));
+        }
+    }
+
+    @Override
+    public boolean batch(Map<Integer, V> puts, Collection<Integer> deletes) {
+        boolean flag = true;
+        for (Map.Entry<Integer, V> entry : puts.entrySet()) {
+            flag = this.store.put(entry.getKey(), entry.getValue()) && flag;
+        }
+        for (Integer id : deletes) {
+            flag = this.store.delete(id) && flag;
+        }
+        return flag;
+    }
+}
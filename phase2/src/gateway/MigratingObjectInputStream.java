@@ -0,0 +1,50 @@
+package gateway;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An ObjectInputStream that reads objects written by an older build whose classes have a different serialVersionUID
+ * but still the same fields, e.g., because the serialVersionUID was never declared and only methods have changed.
+ * Objects whose fields have changed are still rejected with an InvalidClassException.
+ */
+class MigratingObjectInputStream extends ObjectInputStream {
+
+    /**
+     * Initializes the MigratingObjectInputStream.
+     * @param in The stream the objects are read from.
+     * @throws IOException If the stream header cannot be read.
+     */
+    MigratingObjectInputStream(InputStream in) throws IOException {
+        super(in);
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+        ObjectStreamClass streamDesc = super.readClassDescriptor();
+        Class<?> localClass;
+        try {
+            localClass = Class.forName(streamDesc.getName(), false, this.getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return streamDesc;
+        }
+        ObjectStreamClass localDesc = ObjectStreamClass.lookup(localClass);
+        if (localDesc != null && localDesc.getSerialVersionUID() != streamDesc.getSerialVersionUID()
+                && sameFields(localDesc, streamDesc)) {
+            return localDesc;
+        }
+        return streamDesc;
+    }
+
+    private static boolean sameFields(ObjectStreamClass a, ObjectStreamClass b) {
+        return Arrays.equals(describeFields(a), describeFields(b));
+    }
+
+    private static String[] describeFields(ObjectStreamClass desc) {
+        return Arrays.stream(desc.getFields())
+                .sorted(Comparator.comparing(ObjectStreamField::getName))
+                .map(field -> field.getName() + ":" + field.getTypeString() + ":" + field.getTypeCode())
+                .toArray(String[]::new);
+    }
+}
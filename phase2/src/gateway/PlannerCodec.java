@@ -0,0 +1,59 @@
+package gateway;
+
+import entity.DailyPlanner;
+import entity.Planner;
+import entity.ProjectPlanner;
+import entity.ReminderPlanner;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary codec for a single Planner. A one-byte tag for the type of the planner is followed by its fields.
+ * Before version 2, strings were limited to 64 KB; see DataFields.
+ */
+public class PlannerCodec implements ICodec<Planner> {
+    private static final byte DAILY = 0;
+    private static final byte PROJECT = 1;
+    private static final byte REMINDERS = 2;
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public void encode(DataOutput out, Planner planner) throws IOException {
+        switch (planner.getType()) {
+            case "daily":
+                out.writeByte(DAILY);
+                break;
+            case "project":
+                out.writeByte(PROJECT);
+                break;
+            case "reminders":
+                out.writeByte(REMINDERS);
+                break;
+            default:
+                throw new IOException(String.format("Planner type %s is undefined for this program.",
+                        planner.getType()));
+        }
+        planner.writeTo(out);
+    }
+
+    @Override
+    public Planner decode(DataInput in, int version) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case DAILY:
+                return new DailyPlanner(in);
+            case PROJECT:
+                return new ProjectPlanner(in);
+            case REMINDERS:
+                return new ReminderPlanner(in);
+            default:
+                throw new IOException(String.format("Unknown planner tag %d.", tag));
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package gateway;
 
 import entity.Planner;
+import use_case.IntObjectMap;
 import use_case.PlannerManager;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
-public class PlannerGateway extends Reader<HashMap<Integer, Planner>> {
+public class PlannerGateway extends Reader<HashMap<Integer, Planner>> implements IPersistable {
 
     private final String filePath;
-    private HashMap<Integer, Planner> idToPlanner = new HashMap<>();
+    private final ShardedMapFile<Integer, Planner> shards;
+    private final Journal<Integer, Planner> journal;
+    private final int checkpointInterval = 100;
+    private final int numShards = 16;
+    // The map of pm once the planners are loaded, so it always holds the current planners.
+    private IntObjectMap<Planner> idToPlanner = new IntObjectMap<>();
+    // Set when the stored planners cannot be read, so that they are not replaced by an empty map on the next save.
+    private boolean readFailed = false;
+    // Changes recorded by stageChange that are not committed yet, oldest first. Guarded by itself, since a commit
+    // removes them on another thread.
+    private final List<byte[]> stagedRecords = new ArrayList<>();
 
     private final PlannerManager pm;
 
@@ -20,12 +34,17 @@ public class PlannerGateway extends Reader<HashMap<Integer, Planner>> {
     public PlannerGateway(PlannerManager pm) {
         super("data", "phase2/data");
         filePath = this.folderPath + "/idToPlannerMap.ser";
+        this.shards = new ShardedMapFile<>(this, this.folderPath + "/idToPlannerMap", this.numShards);
+        this.journal = new Journal<>(this.folderPath + "/idToPlannerMap.log");
+        this.setCodec(new IntMapCodec<>(new PlannerCodec()));
+        this.setCompressed(true);
         this.pm = pm;
     }
 
 
     /**
-     * Load in the data from database, call this function when initialize an Planner Manager.
+     * Load in the data from database, call this function when initialize an Planner Manager. If the stored planners
+     * cannot be read, loading fails and this gateway refuses to save, so the stored planners are left as they are.
      * @return A boolean value representing whether the loading process is successful or not.
      */
     public boolean load() {
@@ -36,33 +55,138 @@ public class PlannerGateway extends Reader<HashMap<Integer, Planner>> {
     /**
      * Save the data to the database, call this function when a saving is needed. Must be called
      * when exit the application.
+     * Writes a full snapshot of all planners and truncates the journal (i.e., a checkpoint). Only the shards
+     * holding a changed planner are rewritten.
      * @return A boolean value representing whether the loading process is successful or not.
      */
     public boolean save() {
-        return this.writeMaps();
+        if (this.readFailed) {
+            System.out.println("Planners were not loaded, so they are not saved.");
+            return false;
+        }
+        synchronized (this.stagedRecords) {
+            this.stagedRecords.clear();
+        }
+        return this.writeMaps() && this.journal.truncate();
+    }
+
+    /**
+     * Upgrades the stored planners to the current version of their format. See Reader.migrate.
+     * @param listener The listener told about the progress of the migration.
+     * @return A boolean value representing whether the stored planners are current now.
+     */
+    public boolean migrate(IMigrationListener listener) {
+        return this.shards.exists() ? this.shards.migrate(listener) : super.migrate(this.filePath, listener);
+    }
+
+    /**
+     * Stages the changes recorded by stageChange in unitOfWork. Once the journal has grown long enough, a full
+     * snapshot of all planners is staged instead, followed by the truncation of the journal. The changes are only
+     * forgotten once unitOfWork is committed, so they are staged again if the commit fails.
+     * @param unitOfWork The UnitOfWork the write is staged in.
+     * @return A boolean value representing whether the data is successfully captured.
+     */
+    @Override
+    public boolean stageSave(UnitOfWork unitOfWork) {
+        if (this.readFailed) {
+            System.out.println("Planners were not loaded, so they are not saved.");
+            return false;
+        }
+        List<byte[]> records;
+        synchronized (this.stagedRecords) {
+            records = new ArrayList<>(this.stagedRecords);
+        }
+        unitOfWork.onCommit(() -> this.forgetStagedRecords(records.size()));
+        if (this.journal.size() + records.size() < this.checkpointInterval) {
+            this.journal.stageAppend(unitOfWork, records);
+            return true;
+        }
+        boolean flag = this.shards.stageSave(unitOfWork, this.idToPlanner);
+        if (new File(this.filePath).exists()) {
+            unitOfWork.stageDelete(this.filePath);
+        }
+        this.journal.stageTruncate(unitOfWork);
+        return flag;
+    }
+
+    /**
+     * Save a single planner to the database by appending it to the journal, call this function after the planner
+     * with id is created, changed or deleted. Call save once needsCheckpoint returns true.
+     * @param id An integer representing the id of the planner that has changed.
+     * @return A boolean value representing whether the saving process is successful or not.
+     */
+    public boolean saveChange(int id) {
+        this.shards.markChanged(id);
+        Planner planner = pm.findPlanner(id);
+        if (planner == null) {
+            return this.journal.appendDelete(id);
+        } else {
+            return this.journal.appendPut(id, planner);
+        }
+    }
+
+    /**
+     * Records the current state of the planner with id, to be written by the next stageSave. Unlike saveChange,
+     * nothing is written to disk here.
+     * @param id An integer representing the id of the planner that has changed.
+     * @return A boolean value representing whether the change is successfully recorded.
+     */
+    public boolean stageChange(int id) {
+        this.shards.markChanged(id);
+        Planner planner = pm.findPlanner(id);
+        byte[] record = planner == null ? this.journal.encodeDelete(id) : this.journal.encodePut(id, planner);
+        if (record == null) {
+            return false;
+        }
+        synchronized (this.stagedRecords) {
+            this.stagedRecords.add(record);
+        }
+        return true;
+    }
+
+    // The oldest records are the committed ones; records added since they were staged stay.
+    private void forgetStagedRecords(int numCommitted) {
+        synchronized (this.stagedRecords) {
+            this.stagedRecords.subList(0, Math.min(numCommitted, this.stagedRecords.size())).clear();
+        }
+    }
+
+    /**
+     * @return true iff the journal has grown long enough that a full snapshot should be saved.
+     */
+    public boolean needsCheckpoint() {
+        return this.journal.size() >= this.checkpointInterval;
     }
 
 
     private boolean readMaps() {
         try {
-            HashMap<Integer, Planner> hm = super.readSer(this.filePath);
-            if (hm == null) {return true;} else{
-                this.idToPlanner = hm;
+            boolean stored = this.shards.exists() || new File(this.filePath).exists();
+            HashMap<Integer, Planner> hm = this.shards.exists() ? this.shards.load() : super.readSer(this.filePath);
+            if (hm == null && stored) {
+                this.readFailed = true;
+                return false;
             }
-            pm.setNumPlannersLoaded(hm.size());
+            if (hm != null) {
+                this.idToPlanner = new IntObjectMap<>(hm);
+            }
+            // The replayed planners are not in the shards yet, so they are written by the next checkpoint.
+            this.journal.replay(this.idToPlanner, this.shards::markChanged);
+            pm.setIdAllocator(IdLeaseFile.openAllocator(this.folderPath + "/plannerIds.hwm",
+                    this.idToPlanner.keySet()));
             pm.setIdToPlanner(this.idToPlanner);
             return true;
         } catch (Exception ex) {
             ex.printStackTrace();
+            this.readFailed = true;
             return false;
         }
     }
 
 
     private boolean writeMaps() {
-        for (Planner planner: pm.getAllPlanner()) {
-            this.idToPlanner.put(planner.getID(), planner);
-        }
-        return super.writeSer(this.filePath, this.idToPlanner);
+        // The single snapshot file of older versions is replaced by the shards.
+        File oldSnapshot = new File(this.filePath);
+        return this.shards.save(this.idToPlanner) && (!oldSnapshot.exists() || oldSnapshot.delete());
     }
 }
@@ -1,13 +1,22 @@
 package gateway;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 /**
  * Data reader gateway.
  */
 public class Reader<T> implements IGateWay<T> {
+    private static final int CODEC_MAGIC = 0x504C4E52;
+    private static final int COMPRESSED_MAGIC = 0x504C4E5A;
+    private static final int BLOCK_SIZE = 1 << 16;
+
     protected String folderPath;
+    private ICodec<T> codec;
+    private boolean compressed;
 
     /**
      * Initialize the Reader with two file paths。
@@ -27,6 +36,26 @@ public class Reader<T> implements IGateWay<T> {
         }
     }
 
+    /**
+     * Opt in to a binary codec: files will be written with codec instead of default Java serialization. Files written
+     * before opting in can still be read.
+     * @param codec The codec used to write and read objects of type T, null to use default Java serialization.
+     */
+    @Override
+    public void setCodec(ICodec<T> codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Opt in to compression: files will be written as deflated blocks. Files written before opting in can still be
+     * read, and compressed files can still be read after opting out.
+     * @param compressed Whether files are written compressed.
+     */
+    @Override
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
     /**
      * Store an object into a .ser file.
      * @param filePath A String representing the file path you want to store.
@@ -35,22 +64,129 @@ public class Reader<T> implements IGateWay<T> {
      */
     @Override
     public boolean writeSer(String filePath, T obj) {
+        try {
+            return this.writeBytes(filePath, this.encode(obj));
+        } catch (IOException ex) {
+            System.out.println("Saving terminated, data lost.");
+            return false;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Captures obj as the bytes writeSer would store, and stages writing those bytes to filePath in unitOfWork.
+     * The staged write does not look at obj again, so obj can keep changing until unitOfWork is committed.
+     * @param unitOfWork The UnitOfWork the write is staged in.
+     * @param filePath A String representing the file path you want to store.
+     * @param obj The Object you want to store
+     * @return A boolean value representing whether obj is successfully captured.
+     */
+    protected boolean stageWrite(UnitOfWork unitOfWork, String filePath, T obj) {
+        try {
+            unitOfWork.stageWrite(filePath, this.encode(obj));
+            return true;
+        } catch (IOException ex) {
+            System.out.println("Saving terminated, data lost.");
+            return false;
+        }
+    }
+
+    /**
+     * Upgrades the file at filePath to the current version of the codec, without loading it as a whole. A file
+     * written with an older version of the codec is copied one record at a time to a temporary file, which then
+     * replaces it; a file written with default Java serialization is read and written with the codec.
+     * Nothing happens if there is no codec, no file, or the file is already current.
+     * @param filePath A String representing the file path you want to upgrade.
+     * @param listener The listener told about the progress of the migration.
+     * @return A boolean value representing whether the file is current now.
+     */
+    public boolean migrate(String filePath, IMigrationListener listener) {
+        File nf = new File(filePath);
+        if (this.codec == null || !nf.exists()) {
+            return true;
+        }
+        File migrated = new File(filePath + ".migrating");
+        try {
+            try (BufferedInputStream fileIn = new BufferedInputStream(new FileInputStream(nf))) {
+                fileIn.mark(Integer.BYTES);
+                DataInputStream dataIn = new DataInputStream(fileIn);
+                int magic = nf.length() >= Integer.BYTES ? dataIn.readInt() : 0;
+                if (magic == COMPRESSED_MAGIC) {
+                    dataIn = new DataInputStream(new BufferedInputStream(new BlockInflaterInputStream(fileIn)));
+                    magic = dataIn.readInt();
+                }
+                if (magic != CODEC_MAGIC) {
+                    fileIn.reset();
+                    T obj = this.read(filePath, fileIn, nf.length());
+                    listener.onProgress(filePath, 1, 1);
+                    return this.writeSer(filePath, obj);
+                }
+                int version = dataIn.readInt();
+                if (version == this.codec.getVersion()) {
+                    return true;
+                } else if (version > this.codec.getVersion()) {
+                    System.out.printf("%s was written by a newer version and is left as it is.%n", filePath);
+                    return false;
+                }
+                try (DataOutputStream dataOut = this.openCodecOutput(
+                        new BufferedOutputStream(new FileOutputStream(migrated)))) {
+                    this.codec.migrate(dataIn, version, dataOut, filePath, listener);
+                }
+            }
+            Files.move(migrated.toPath(), nf.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | ClassNotFoundException e) {
+            System.out.printf("%s cannot be migrated: %s%n", filePath, e.getMessage());
+            migrated.delete();
+            return false;
+        }
+    }
+
+    byte[] encode(T obj) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (this.codec == null) {
+            ObjectOutputStream objectOut = new ObjectOutputStream(this.openOutput(bytes));
+            objectOut.writeObject(obj);
+            objectOut.close();
+        } else {
+            DataOutputStream dataOut = this.openCodecOutput(bytes);
+            this.codec.encode(dataOut, obj);
+            dataOut.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    private OutputStream openOutput(OutputStream out) throws IOException {
+        if (!this.compressed) {
+            return out;
+        }
+        new DataOutputStream(out).writeInt(COMPRESSED_MAGIC);
+        return new BlockDeflaterOutputStream(out, BLOCK_SIZE);
+    }
+
+    private DataOutputStream openCodecOutput(OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(this.openOutput(out));
+        dataOut.writeInt(CODEC_MAGIC);
+        dataOut.writeInt(this.codec.getVersion());
+        return dataOut;
+    }
+
+    boolean writeBytes(String filePath, byte[] bytes) {
         File nf = new File(filePath);
         try {
             if (nf.createNewFile() || nf.delete()) {
-                FileOutputStream fileOut = new FileOutputStream(filePath);
-                ObjectOutputStream objectOut = new ObjectOutputStream(fileOut);
-                objectOut.writeObject(obj);
-                objectOut.close();
+                OutputStream fileOut = new FileOutputStream(filePath);
+                fileOut.write(bytes);
+                fileOut.close();
                 return true;
             }
             return false;
         } catch (IOException ex) {
             System.out.println("Saving terminated, data lost.");
             return false;
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
         }
     }
 
@@ -66,14 +202,11 @@ public class Reader<T> implements IGateWay<T> {
             if (nf.createNewFile() && nf.delete()) {
                 return null;
             }
-            FileInputStream fileIn = new FileInputStream(filePath);
-            ObjectInputStream objectIn = new ObjectInputStream(fileIn);
-            T obj = (T) objectIn.readObject();
-            objectIn.close();
-            return obj;
+            try (BufferedInputStream fileIn = new BufferedInputStream(new FileInputStream(filePath))) {
+                return this.read(filePath, fileIn, nf.length());
+            }
         } catch (IOException e){
-            System.out.println("Database outdated, automatically deleted.");
-            nf.delete();
+            this.setAside(nf);
             return null;
         } catch (Exception ex) {
             System.out.println("Please check if the casting type is the correct type ");
@@ -82,6 +215,52 @@ public class Reader<T> implements IGateWay<T> {
         }
     }
 
+    /**
+     * Reads bytes, as stored by writeSer, into an object of type T.
+     * @param filePath A String representing the file path bytes were read from, used in error messages.
+     * @param bytes The content of the file.
+     * @return An object of object type T.
+     */
+    T decode(String filePath, byte[] bytes) throws IOException, ClassNotFoundException {
+        return this.read(filePath, new BufferedInputStream(new ByteArrayInputStream(bytes)), bytes.length);
+    }
+
+    /**
+     * Moves a file that cannot be read out of the way, instead of deleting it, so its data can still be recovered.
+     * @param file The file that cannot be read.
+     */
+    void setAside(File file) {
+        try {
+            Files.move(file.toPath(), Paths.get(file.getPath() + ".outdated"), StandardCopyOption.REPLACE_EXISTING);
+            System.out.printf("Database outdated, moved to %s.outdated.%n", file.getPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T read(String filePath, BufferedInputStream in, long length) throws IOException, ClassNotFoundException {
+        in.mark(Integer.BYTES);
+        DataInputStream dataIn = new DataInputStream(in);
+        int magic = length >= Integer.BYTES ? dataIn.readInt() : 0;
+        if (magic == CODEC_MAGIC) {
+            return this.readCodec(filePath, dataIn);
+        } else if (magic == COMPRESSED_MAGIC) {
+            // Blocks are decompressed as the content is decoded, never all at once.
+            return this.read(filePath, new BufferedInputStream(new BlockInflaterInputStream(in)), Long.MAX_VALUE);
+        }
+        in.reset();
+        return (T) new MigratingObjectInputStream(in).readObject();
+    }
+
+    private T readCodec(String filePath, DataInputStream dataIn) throws IOException {
+        int version = dataIn.readInt();
+        if (this.codec == null || version > this.codec.getVersion()) {
+            throw new IOException(String.format("No codec can read version %d of %s.", version, filePath));
+        }
+        return this.codec.decode(dataIn, version);
+    }
+
     /***
      * Writes lines to a text file at filePath. Returns true if content is successfully saved to text file,
      * false otherwise.
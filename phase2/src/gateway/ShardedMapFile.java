@@ -0,0 +1,252 @@
+package gateway;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Stores a map in a fixed number of shard files instead of one file. An entry goes to the shard picked by the hash of
+ * its key, and every shard is a map written and read with the Reader it was given, so shards can be read in parallel
+ * and a save only encodes the shards marked by markChanged since they were last written, plus any shard that has not
+ * been read or written yet.
+ * @param <K> Type of the keys of the map.
+ * @param <V> Type of the values of the map.
+ */
+class ShardedMapFile<K, V> {
+    private final Reader<HashMap<K, V>> reader;
+    private final String basePath;
+    private final int numShards;
+    private final byte[][] digests;
+    // Number of changes marked in each shard, and how many of them were in the shard when it was last written. Both
+    // are guarded by digests, like the digests themselves.
+    private final long[] numChanges;
+    private final long[] numWritten;
+
+    /**
+     * Initializes the ShardedMapFile. Shard i is stored at basePath.i.ser.
+     * @param reader The Reader used to encode and decode each shard.
+     * @param basePath A String representing the file path of the shards without their suffix.
+     * @param numShards Number of shards, which must stay the same for files that already exist.
+     */
+    ShardedMapFile(Reader<HashMap<K, V>> reader, String basePath, int numShards) {
+        this.reader = reader;
+        this.basePath = basePath;
+        this.numShards = numShards;
+        this.digests = new byte[numShards][];
+        this.numChanges = new long[numShards];
+        this.numWritten = new long[numShards];
+    }
+
+    /**
+     * @return true iff the shards have been written before.
+     */
+    boolean exists() {
+        return new File(this.shardPath(0)).exists();
+    }
+
+    /**
+     * Marks the shard of key as changed, so that it is written by the next save. Call this function whenever the
+     * entry of key is put, changed or removed.
+     * @param key The key of the changed entry.
+     */
+    void markChanged(K key) {
+        int shard = this.shardOf(key);
+        synchronized (this.digests) {
+            this.numChanges[shard]++;
+        }
+    }
+
+    /**
+     * Reads every shard, in parallel on the common fork-join pool, and merges them into one map.
+     * @return The merged map, or null if a shard cannot be read, in which case the shards are left as they are.
+     */
+    HashMap<K, V> load() {
+        List<HashMap<K, V>> shards = IntStream.range(0, this.numShards).parallel()
+                .mapToObj(this::readShard)
+                .collect(Collectors.toList());
+        int size = 0;
+        for (HashMap<K, V> shard : shards) {
+            if (shard == null) {
+                return null;
+            }
+            size += shard.size();
+        }
+        HashMap<K, V> map = new HashMap<>(size * 2);
+        for (HashMap<K, V> shard : shards) {
+            map.putAll(shard);
+        }
+        return map;
+    }
+
+    /**
+     * Writes every shard of map that has changed since it was last read or written. A shard is only remembered as
+     * written once its write succeeds.
+     * @param map The whole map.
+     * @return A boolean value representing whether the saving process is successful or not.
+     */
+    boolean save(Map<K, V> map) {
+        Map<Integer, EncodedShard> changed = new TreeMap<>();
+        boolean flag = this.encodeChanged(map, changed);
+        for (Map.Entry<Integer, EncodedShard> shard : changed.entrySet()) {
+            EncodedShard encoded = shard.getValue();
+            if (encoded.bytes == null || this.reader.writeBytes(this.shardPath(shard.getKey()), encoded.bytes)) {
+                this.setWritten(shard.getKey(), encoded);
+            } else {
+                flag = false;
+            }
+        }
+        return flag;
+    }
+
+    /**
+     * Stages writing every shard of map that has changed since it was last read or written. The shards are only
+     * remembered as written once unitOfWork is committed successfully.
+     * @param unitOfWork The UnitOfWork the writes are staged in.
+     * @param map The whole map.
+     * @return A boolean value representing whether every changed shard is encoded and staged.
+     */
+    boolean stageSave(UnitOfWork unitOfWork, Map<K, V> map) {
+        Map<Integer, EncodedShard> changed = new TreeMap<>();
+        boolean flag = this.encodeChanged(map, changed);
+        for (Map.Entry<Integer, EncodedShard> shard : changed.entrySet()) {
+            if (shard.getValue().bytes != null) {
+                unitOfWork.stageWrite(this.shardPath(shard.getKey()), shard.getValue().bytes);
+            }
+        }
+        unitOfWork.onCommit(() -> changed.forEach(this::setWritten));
+        return flag;
+    }
+
+    /**
+     * Upgrades every shard to the current version of the codec of the Reader, in parallel on the common fork-join
+     * pool. See Reader.migrate.
+     * @param listener The listener told about the progress of the migration.
+     * @return A boolean value representing whether every shard is current now.
+     */
+    boolean migrate(IMigrationListener listener) {
+        boolean flag = IntStream.range(0, this.numShards).parallel()
+                .mapToObj(i -> this.reader.migrate(this.shardPath(i), listener))
+                .reduce(true, Boolean::logicalAnd);
+        // Every shard is written once more by the next save, in the current version.
+        synchronized (this.digests) {
+            Arrays.fill(this.digests, null);
+        }
+        return flag;
+    }
+
+    private String shardPath(int shard) {
+        return this.basePath + "." + shard + ".ser";
+    }
+
+    private int shardOf(K key) {
+        return Math.floorMod(key.hashCode(), this.numShards);
+    }
+
+    /**
+     * Reads one shard. A shard that does not exist is empty, while a shard that cannot be read fails the whole load.
+     */
+    private HashMap<K, V> readShard(int shard) {
+        File file = new File(this.shardPath(shard));
+        if (!file.exists()) {
+            return new HashMap<>();
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            HashMap<K, V> map = this.reader.decode(file.getPath(), bytes);
+            synchronized (this.digests) {
+                this.digests[shard] = digest(bytes);
+                this.numWritten[shard] = this.numChanges[shard];
+            }
+            return map;
+        } catch (IOException | ClassNotFoundException e) {
+            System.out.printf("%s cannot be read: %s%n", file.getPath(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Encodes every shard of map that has changed since it was last read or written, and puts it in changed, keyed by
+     * shard. A shard whose content turns out to be the same as on disk is put without its bytes, so it is only
+     * remembered as written. Nothing is remembered here, since the shards are not on disk yet.
+     * @return false iff a changed shard cannot be encoded.
+     */
+    private boolean encodeChanged(Map<K, V> map, Map<Integer, EncodedShard> changed) {
+        long[] marked = new long[this.numShards];
+        byte[][] oldDigests = new byte[this.numShards][];
+        List<HashMap<K, V>> shards = new ArrayList<>(this.numShards);
+        boolean anyChanged = false;
+        synchronized (this.digests) {
+            for (int i = 0; i < this.numShards; i++) {
+                boolean dirty = this.digests[i] == null || this.numWritten[i] != this.numChanges[i];
+                marked[i] = this.numChanges[i];
+                oldDigests[i] = this.digests[i];
+                shards.add(dirty ? new HashMap<>() : null);
+                anyChanged = anyChanged || dirty;
+            }
+        }
+        if (!anyChanged) {
+            return true;
+        }
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            HashMap<K, V> shard = shards.get(this.shardOf(entry.getKey()));
+            if (shard != null) {
+                shard.put(entry.getKey(), entry.getValue());
+            }
+        }
+        boolean flag = true;
+        for (int i = 0; i < this.numShards; i++) {
+            if (shards.get(i) == null) {
+                continue;
+            }
+            try {
+                byte[] bytes = this.reader.encode(shards.get(i));
+                byte[] digest = digest(bytes);
+                boolean same = Arrays.equals(digest, oldDigests[i]);
+                changed.put(i, new EncodedShard(same ? null : bytes, digest, marked[i]));
+            } catch (IOException e) {
+                System.out.println("Saving terminated, data lost.");
+                flag = false;
+            }
+        }
+        return flag;
+    }
+
+    // Shards are encoded on the thread that saves and remembered as written on the thread that commits. Changes
+    // marked after the shard was encoded keep it changed.
+    private void setWritten(int shard, EncodedShard encoded) {
+        synchronized (this.digests) {
+            this.digests[shard] = encoded.digest;
+            this.numWritten[shard] = Math.max(this.numWritten[shard], encoded.numChanges);
+        }
+    }
+
+    /**
+     * A shard encoded by a save, with the number of changes marked in it when it was encoded.
+     */
+    private static class EncodedShard {
+        // null if the shard is the same as on disk and need not be written.
+        final byte[] bytes;
+        final byte[] digest;
+        final long numChanges;
+
+        EncodedShard(byte[] bytes, byte[] digest, long numChanges) {
+            this.bytes = bytes;
+            this.digest = digest;
+            this.numChanges = numChanges;
+        }
+    }
+
+    private static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform provides SHA-1, so this never happens.
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package gateway;
+
+import entity.DailyTemplate;
+import entity.ProjectTemplate;
+import entity.RemindersTemplate;
+import entity.Template;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary codec for a single Template. A one-byte tag for the type of the template is followed by its fields.
+ * Before version 2, strings were limited to 64 KB; see DataFields.
+ */
+public class TemplateCodec implements ICodec<Template> {
+    private static final byte DAILY = 0;
+    private static final byte PROJECT = 1;
+    private static final byte REMINDERS = 2;
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public void encode(DataOutput out, Template template) throws IOException {
+        switch (template.isType()) {
+            case "daily":
+                out.writeByte(DAILY);
+                break;
+            case "project":
+                out.writeByte(PROJECT);
+                break;
+            case "reminders":
+                out.writeByte(REMINDERS);
+                break;
+            default:
+                throw new IOException(String.format("Template type %s is undefined for this program.",
+                        template.isType()));
+        }
+        template.writeTo(out);
+    }
+
+    @Override
+    public Template decode(DataInput in, int version) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case DAILY:
+                return new DailyTemplate(in);
+            case PROJECT:
+                return new ProjectTemplate(in);
+            case REMINDERS:
+                return new RemindersTemplate(in);
+            default:
+                throw new IOException(String.format("Unknown template tag %d.", tag));
+        }
+    }
+}
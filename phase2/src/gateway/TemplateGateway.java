@@ -5,7 +5,7 @@ import use_case.TemplateManager;
 
 import java.util.HashMap;
 
-public class TemplateGateway extends Reader<HashMap<Integer, Template>> {
+public class TemplateGateway extends Reader<HashMap<Integer, Template>> implements IPersistable {
 
     private final String filePath;
     private HashMap<Integer, Template> idToTemplate = new HashMap<>();
@@ -15,6 +15,8 @@ public class TemplateGateway extends Reader<HashMap<Integer, Template>> {
     public TemplateGateway(TemplateManager tm) {
         super("data", "phase2/data");
         this.filePath = this.folderPath + "/idToTemplate.ser";
+        this.setCodec(new IntMapCodec<>(new TemplateCodec()));
+        this.setCompressed(true);
         this.tm = tm;
     }
 
@@ -35,14 +37,35 @@ public class TemplateGateway extends Reader<HashMap<Integer, Template>> {
         return this.writeMaps();
     }
 
+    /**
+     * Captures the data to be saved and stages its write in unitOfWork.
+     * @param unitOfWork The UnitOfWork the write is staged in.
+     * @return A boolean value representing whether the data is successfully captured.
+     */
+    @Override
+    public boolean stageSave(UnitOfWork unitOfWork) {
+        this.fillMaps();
+        return super.stageWrite(unitOfWork, this.filePath, this.idToTemplate);
+    }
+
+    /**
+     * Upgrades the stored templates to the current version of their format. See Reader.migrate.
+     * @param listener The listener told about the progress of the migration.
+     * @return A boolean value representing whether the stored templates are current now.
+     */
+    public boolean migrate(IMigrationListener listener) {
+        return super.migrate(this.filePath, listener);
+    }
+
     //Private methods
     private boolean readMaps() {
         try {
             HashMap<Integer, Template> hm = super.readSer(this.filePath);
-            if (hm == null) {return true;} else {
+            if (hm != null) {
                 this.idToTemplate = hm;
             }
-            tm.setNumTemplatesLoaded(hm.size());
+            tm.setIdAllocator(IdLeaseFile.openAllocator(this.folderPath + "/templateIds.hwm",
+                    this.idToTemplate.keySet()));
             for (Template temp: this.idToTemplate.values()) {
                 tm.addTemplate(temp);
             }
@@ -54,9 +77,13 @@ public class TemplateGateway extends Reader<HashMap<Integer, Template>> {
     }
 
     private boolean writeMaps() {
+        this.fillMaps();
+        return super.writeSer(this.filePath, this.idToTemplate);
+    }
+
+    private void fillMaps() {
         for (Template temp: tm.getTemplates().values()) {
             this.idToTemplate.put(temp.getId(), temp);
         }
-        return super.writeSer(this.filePath, this.idToTemplate);
     }
 }
@@ -0,0 +1,103 @@
+package gateway;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A batch of file changes staged by one or more gateways, which a CommitLog commits all together or not at all.
+ * Nothing is written to disk until commit is called.
+ */
+public class UnitOfWork {
+    static final byte WRITE = 1;
+    static final byte APPEND = 2;
+    static final byte DELETE = 3;
+
+    /**
+     * A single staged file change.
+     */
+    static class Change {
+        final byte type;
+        final String filePath;
+        final byte[] bytes;
+        long offset;
+
+        Change(byte type, String filePath, byte[] bytes) {
+            this.type = type;
+            this.filePath = filePath;
+            this.bytes = bytes;
+        }
+    }
+
+    private final CommitLog commitLog;
+    private final List<Change> changes = new ArrayList<>();
+    private final List<Runnable> commitActions = new ArrayList<>();
+
+    /**
+     * Initializes an empty UnitOfWork. Use CommitLog.begin to get one.
+     * @param commitLog The CommitLog this UnitOfWork will be committed to.
+     */
+    UnitOfWork(CommitLog commitLog) {
+        this.commitLog = commitLog;
+    }
+
+    /**
+     * Stages replacing the content of the file at filePath with bytes.
+     * @param filePath A String representing the path of the file.
+     * @param bytes The new content of the file.
+     */
+    public void stageWrite(String filePath, byte[] bytes) {
+        this.changes.add(new Change(WRITE, filePath, bytes));
+    }
+
+    /**
+     * Stages appending bytes to the end of the file at filePath.
+     * @param filePath A String representing the path of the file.
+     * @param bytes The content to be appended.
+     */
+    public void stageAppend(String filePath, byte[] bytes) {
+        this.changes.add(new Change(APPEND, filePath, bytes));
+    }
+
+    /**
+     * Stages deleting the file at filePath.
+     * @param filePath A String representing the path of the file.
+     */
+    public void stageDelete(String filePath) {
+        this.changes.add(new Change(DELETE, filePath, new byte[0]));
+    }
+
+    /**
+     * Registers an action that runs once this UnitOfWork has been committed successfully, e.g., to remember what is
+     * on disk now. The action does not run if the commit fails.
+     * @param action The action to run after a successful commit.
+     */
+    public void onCommit(Runnable action) {
+        this.commitActions.add(action);
+    }
+
+    /**
+     * @return true iff nothing has been staged.
+     */
+    public boolean isEmpty() {
+        return this.changes.isEmpty();
+    }
+
+    /**
+     * Commits every staged change as one batch.
+     * @return A boolean value representing whether the commit is successful or not.
+     */
+    public boolean commit() {
+        if (!this.commitLog.commit(this)) {
+            return false;
+        }
+        for (Runnable action : this.commitActions) {
+            action.run();
+        }
+        return true;
+    }
+
+    List<Change> getChanges() {
+        return Collections.unmodifiableList(this.changes);
+    }
+}
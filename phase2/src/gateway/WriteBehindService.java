@@ -0,0 +1,206 @@
+package gateway;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Saves gateways in the background, so callers only mark a gateway dirty and return at once.
+ * The first change after a flush schedules the next flush maxDelayMillis later, and every gateway marked dirty in
+ * the meantime is saved by that one flush. The data of every dirty gateway is captured on the thread that owns it
+ * (e.g., the Swing event thread) and staged in one UnitOfWork, and only the commit of that UnitOfWork happens on the
+ * background thread. Since the data is captured between two tasks of the owner thread, all the changes made by one
+ * user action are committed in the same batch.
+ * Call shutdown from the owner thread before the program exits to run the final flush there. A JVM shutdown hook
+ * also flushes, as a fallback for a program that exits without calling shutdown.
+ */
+public class WriteBehindService {
+    private static final long CAPTURE_TIMEOUT_MILLIS = 5000;
+
+    private final long maxDelayMillis;
+    private final Executor ownerExecutor;
+    private final CommitLog commitLog;
+    private final ScheduledThreadPoolExecutor writer;
+    private final Thread shutdownHook;
+
+    private final Object writeLock = new Object();
+    private final Set<IPersistable> dirty = new LinkedHashSet<>();
+    private ScheduledFuture<?> scheduledFlush;
+    // The capture the background flush is waiting for, if any, so that shutdown can take it over.
+    private boolean closing = false;
+    private AtomicBoolean pendingClaim;
+    private CompletableFuture<UnitOfWork> pendingCapture;
+
+    /**
+     * Initializes the WriteBehindService and registers its shutdown hook.
+     * @param maxDelayMillis The longest time in milliseconds a change waits before it is written to disk.
+     * @param ownerExecutor Runs tasks on the thread that changes the data of the gateways.
+     * @param commitLog The CommitLog every flush is committed to.
+     */
+    public WriteBehindService(long maxDelayMillis, Executor ownerExecutor, CommitLog commitLog) {
+        this.maxDelayMillis = maxDelayMillis;
+        this.ownerExecutor = ownerExecutor;
+        this.commitLog = commitLog;
+        this.writer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.shutdownHook = new Thread(this::flush, "write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    /**
+     * Marks gateway as having unsaved changes. It will be saved by the next flush.
+     * @param gateway The gateway whose data has changed.
+     */
+    public synchronized void markDirty(IPersistable gateway) {
+        this.dirty.add(gateway);
+        if (this.scheduledFlush == null && !this.writer.isShutdown()) {
+            this.scheduledFlush = this.writer.schedule(this::flushInBackground, this.maxDelayMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Saves every dirty gateway now, on the calling thread. The calling thread must be the one that changes the data
+     * of the gateways, or the program must have stopped changing it (e.g., during shutdown).
+     * @return A boolean value representing whether every dirty gateway is successfully saved.
+     */
+    public boolean flush() {
+        synchronized (this.writeLock) {
+            UnitOfWork unitOfWork = this.commitLog.begin();
+            boolean flag = this.stage(this.takeDirty(), unitOfWork);
+            return unitOfWork.commit() && flag;
+        }
+    }
+
+    /**
+     * Stops the background thread and saves every dirty gateway. Call this from the thread that changes the data of
+     * the gateways when the program exits. A commit that is running is never interrupted: it finishes before the final
+     * flush starts. A background flush still waiting for this thread to capture its data hands its gateways over to
+     * the final flush instead.
+     * @return A boolean value representing whether every dirty gateway is successfully saved.
+     */
+    public boolean shutdown() {
+        this.writer.shutdown();
+        this.takeOverPendingCapture();
+        boolean flag = this.flush();
+        try {
+            Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down, the hook is running or has run.
+        }
+        return flag;
+    }
+
+    private synchronized List<IPersistable> takeDirty() {
+        List<IPersistable> gateways = new ArrayList<>(this.dirty);
+        this.dirty.clear();
+        if (this.scheduledFlush != null) {
+            this.scheduledFlush.cancel(false);
+            this.scheduledFlush = null;
+        }
+        return gateways;
+    }
+
+    private void flushInBackground() {
+        synchronized (this.writeLock) {
+            // Whoever sets claimed first decides: the owner thread stages the gateways, or the flush gives up on them.
+            AtomicBoolean claimed = new AtomicBoolean();
+            CompletableFuture<UnitOfWork> staged = new CompletableFuture<>();
+            List<IPersistable> gateways = this.beginCapture(claimed, staged);
+            if (gateways.isEmpty()) {
+                return;
+            }
+            this.ownerExecutor.execute(() -> {
+                if (claimed.compareAndSet(false, true)) {
+                    UnitOfWork unitOfWork = this.commitLog.begin();
+                    this.stage(gateways, unitOfWork);
+                    staged.complete(unitOfWork);
+                }
+            });
+            try {
+                UnitOfWork unitOfWork;
+                try {
+                    unitOfWork = staged.get(CAPTURE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (claimed.compareAndSet(false, true)) {
+                        // The owner thread is busy, leave the gateways to the next flush.
+                        for (IPersistable gateway : gateways) {
+                            this.markDirty(gateway);
+                        }
+                        return;
+                    }
+                    unitOfWork = staged.get();
+                }
+                if (unitOfWork == null) {
+                    // shutdown took over the capture, its flush saves the gateways.
+                    for (IPersistable gateway : gateways) {
+                        this.markDirty(gateway);
+                    }
+                    return;
+                }
+                this.commit(unitOfWork, gateways);
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            } finally {
+                this.endCapture();
+            }
+        }
+    }
+
+    /**
+     * Takes the dirty gateways for a background flush and remembers its capture, unless shutdown has begun, in which
+     * case the gateways are left to the final flush.
+     */
+    private synchronized List<IPersistable> beginCapture(AtomicBoolean claimed, CompletableFuture<UnitOfWork> staged) {
+        if (this.closing) {
+            return new ArrayList<>();
+        }
+        this.pendingClaim = claimed;
+        this.pendingCapture = staged;
+        return this.takeDirty();
+    }
+
+    private synchronized void endCapture() {
+        this.pendingClaim = null;
+        this.pendingCapture = null;
+    }
+
+    /**
+     * Wakes up a background flush that waits for a capture the owner thread has not started, so that it leaves its
+     * gateways to the final flush instead of waiting for the timeout.
+     */
+    private synchronized void takeOverPendingCapture() {
+        this.closing = true;
+        if (this.pendingClaim != null && this.pendingClaim.compareAndSet(false, true)) {
+            this.pendingCapture.complete(null);
+        }
+    }
+
+    /**
+     * Commits unitOfWork. If the commit fails, the gateways are marked dirty again, so the next flush saves their
+     * data once more.
+     */
+    private void commit(UnitOfWork unitOfWork, List<IPersistable> gateways) {
+        if (!unitOfWork.commit()) {
+            System.out.println("Saving failed, retrying in " + this.maxDelayMillis + " ms.");
+            for (IPersistable gateway : gateways) {
+                this.markDirty(gateway);
+            }
+        }
+    }
+
+    private boolean stage(List<IPersistable> gateways, UnitOfWork unitOfWork) {
+        boolean flag = true;
+        for (IPersistable gateway : gateways) {
+            flag = gateway.stageSave(unitOfWork) && flag;
+        }
+        return flag;
+    }
+}
@@ -32,13 +32,15 @@ public class AdminAccountUI extends GeneralUI {
      */
     @Override
     public void run() {
-        if (flag) {
-            cl.show(main, "adminUserMainMenu");
-        } else {
-            this.showMenu();
-            cl.show(main, "adminUserMainMenu");
-            flag = !flag;
-        }
+        whenDataLoaded(() -> {
+            if (flag) {
+                cl.show(main, "adminUserMainMenu");
+            } else {
+                this.showMenu();
+                cl.show(main, "adminUserMainMenu");
+                flag = !flag;
+            }
+        });
     }
 
     private void showMenu() {
@@ -42,11 +42,13 @@ public class FriendUI extends GeneralUI implements ActionListener {
         friendsInfo = data.getFriendsInfo(friendUI);
 
         FormBuilder fb = new FormBuilder();
-        fb.setBounds(425, 50, 300, 240);
+        fb.setBounds(425, 50, 300, 320);
         fb.addLabel("prompt", labelToStrings.get("prompt"));
         fb.addTextField("id");
         fb.addSubmitButton("addFriend", labelToStrings.get("addFriend"));
         fb.addSubmitButton("deleteFriend", labelToStrings.get("deleteFriend"));
+        fb.addSubmitButton("viewDetails", labelToStrings.get("viewDetails"));
+        fb.addSubmitButton("viewActivity", labelToStrings.get("viewActivity"));
         fb.addSuperButton("goBack", labelToStrings.get("goBack"), this.getParent());
         fb.addListener(this);
 
@@ -72,6 +74,10 @@ public class FriendUI extends GeneralUI implements ActionListener {
             accessController.deleteFriend(accessController.getCurrUserId(),
                     ((JTextField) form.get("id")).getText());
             update();
+        } else if (e.getSource() == form.get("viewDetails")) {
+            friendsInfo = data.getFriendDetails(((JTextField) form.get("id")).getText().trim(), friendUI);
+        } else if (e.getSource() == form.get("viewActivity")) {
+            update();
         }
     }
 }
@@ -3,9 +3,14 @@ package graphical_user_interface;
 import controller.AccessController;
 import controller.PlannerController;
 import controller.TemplateController;
+import gateway.CommitLog;
+import gateway.WriteBehindService;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -13,23 +18,55 @@ import java.awt.*;
  */
 public abstract class GeneralUI {
     /**
+     * commitLog: Commits the changes of all controllers in batches. Unfinished batches are recovered before any
+     * controller loads its data.
      * accessController: An instance of AccessController.
      * templateController: An instance of TemplateController.
      * plannerController: An instance of PlannerController.
+     * accountsLoaded, templatesLoaded, plannersLoaded: Complete once the data of the matching controller is loaded.
+     * The three loads run in parallel in the background, so the login page can show before everything is loaded.
+     * writeBehind: Saves the data of all controllers in the background, at most maxSaveDelay milliseconds after a
+     * change.
      * main: The main JPanel.
      * cl: The CardLayout for main JPanel.
-     * frame: The JFrame that the main JPanel will be added to.
+     * frame: The JFrame that the main JPanel will be added to. Closing it saves every unsaved change on the event
+     * thread before the program exits.
      * data: An instance of ViewData which fetches data from controllers.
      */
+    private static final CommitLog commitLog = new CommitLog();
+    static {
+        commitLog.recover();
+    }
     protected static AccessController accessController = new AccessController();
     protected static TemplateController templateController = new TemplateController();
     protected static PlannerController plannerController = new PlannerController();
+    protected static final CompletableFuture<Boolean> accountsLoaded =
+            CompletableFuture.supplyAsync(accessController::load);
+    protected static final CompletableFuture<Boolean> templatesLoaded =
+            CompletableFuture.supplyAsync(templateController::load);
+    protected static final CompletableFuture<Boolean> plannersLoaded =
+            CompletableFuture.supplyAsync(plannerController::load);
+    private static final long maxSaveDelay = 2000;
+    protected static WriteBehindService writeBehind = new WriteBehindService(maxSaveDelay,
+            SwingUtilities::invokeLater, commitLog);
 
     private GeneralUI parent;
     protected static JPanel main = new JPanel();
     protected static CardLayout cl;
     protected static JFrame frame = new JFrame();
     protected static ViewData data = new ViewData(accessController, templateController, plannerController);
+    static {
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (!writeBehind.shutdown()) {
+                    System.out.println("Some changes could not be saved.");
+                }
+                frame.dispose();
+                System.exit(0);
+            }
+        });
+    }
 
     public GeneralUI() {
         accessController.setPlannerController(plannerController);
@@ -38,11 +75,14 @@ public abstract class GeneralUI {
         templateController.setPlannerController(plannerController);
         plannerController.setAccessController(accessController);
         plannerController.setTemplateController(templateController);
+        accessController.setWriteBehind(writeBehind);
+        templateController.setWriteBehind(writeBehind);
+        plannerController.setWriteBehind(writeBehind);
 
         cl = new CardLayout();
         main.setLayout(cl);
         frame.add(main);
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
         frame.setSize(700, 600);
         frame.setResizable(false);
         frame.setVisible(true);
@@ -53,6 +93,24 @@ public abstract class GeneralUI {
      */
     public abstract void run();
 
+    /**
+     * Runs then on the event thread once templates and planners are loaded. Call this to show a UI that needs them.
+     * The event thread is not blocked in the meantime; the frame shows a wait cursor until they are loaded.
+     * @param then The code that shows the UI, run right away if everything is loaded already.
+     */
+    protected static void whenDataLoaded(Runnable then) {
+        CompletableFuture<Void> loaded = CompletableFuture.allOf(templatesLoaded, plannersLoaded);
+        if (loaded.isDone()) {
+            then.run();
+            return;
+        }
+        frame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        loaded.whenCompleteAsync((ignored, e) -> {
+            frame.setCursor(Cursor.getDefaultCursor());
+            then.run();
+        }, SwingUtilities::invokeLater);
+    }
+
     /**
      * Sets the parent of the current UI.
      * @param parent A GeneralUI representing the parent we want to assign.
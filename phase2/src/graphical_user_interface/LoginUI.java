@@ -95,6 +95,24 @@ public class LoginUI extends GeneralUI implements ActionListener {
         forgetPassword.addActionListener(this);
         panel.add(forgetPassword);
 
+        // Accounts are still loading in the background, the page becomes usable once they are loaded.
+        if (!accountsLoaded.isDone()) {
+            this.setInputsEnabled(false);
+            prompt.setText(labelToStrings.get("loading"));
+            accountsLoaded.whenComplete((loaded, e) -> SwingUtilities.invokeLater(() -> {
+                this.setInputsEnabled(true);
+                prompt.setText(labelToStrings.get("prompt"));
+            }));
+        }
+    }
+
+    private void setInputsEnabled(boolean enabled) {
+        retriever.setEnabled(enabled);
+        password.setEnabled(enabled);
+        login.setEnabled(enabled);
+        createAccount.setEnabled(enabled);
+        guest.setEnabled(enabled);
+        forgetPassword.setEnabled(enabled);
     }
 
     /**
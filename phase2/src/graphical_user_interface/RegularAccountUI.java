@@ -27,14 +27,16 @@ public class RegularAccountUI extends GeneralUI {
      */
     @Override
     public void run() {
-        if (flag) {
-            cl.show(main, "regularUserMainMenu");
-        } else {
-            this.showMenu();
-            cl.show(main, "regularUserMainMenu");
-            frame.setVisible(true);
-            flag = !flag;
-        }
+        whenDataLoaded(() -> {
+            if (flag) {
+                cl.show(main, "regularUserMainMenu");
+            } else {
+                this.showMenu();
+                cl.show(main, "regularUserMainMenu");
+                frame.setVisible(true);
+                flag = !flag;
+            }
+        });
     }
 
     private void showMenu() {
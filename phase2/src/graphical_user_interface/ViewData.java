@@ -3,14 +3,28 @@ package graphical_user_interface;
 import controller.AccessController;
 import controller.PlannerController;
 import controller.TemplateController;
+import use_case.Page;
+import use_case.PlannerEvent;
 
 import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultCaret;
 import java.awt.*;
+import java.awt.event.AdjustmentEvent;
+import java.awt.event.AdjustmentListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 
 /**
- * Fetches data from controllers and put it inside JScrollPane.
+ * Fetches data from controllers and put it inside JScrollPane. Listings of planners, templates and accounts are
+ * fetched one page at a time, as the user scrolls down.
  */
 public class ViewData {
+    private static final int PAGE_SIZE = 50;
+    private static final String FEED_HEADING = "Friends' Recent Activity:\n";
+
     private final AccessController accessController;
     private final TemplateController templateController;
     private final PlannerController plannerController;
@@ -21,6 +35,7 @@ public class ViewData {
     JTextArea singlePlannerInfo = new JTextArea();
     JTextArea singleTemplateInfo = new JTextArea();
     JTextArea friendsInfo = new JTextArea();
+    JTextArea friendDetailsInfo = new JTextArea();
     JTextArea accountsInfo = new JTextArea();
     JTextArea trashBinInfo = new JTextArea();
 
@@ -33,6 +48,14 @@ public class ViewData {
     JScrollPane allAccounts = new JScrollPane(accountsInfo);
     JScrollPane trashBin = new JScrollPane(trashBinInfo);
 
+    private final PagedText plannerPages = new PagedText(planners, plannerInfo);
+    private final PagedText templatePages = new PagedText(templates, templateInfo);
+    private final PagedText accountPages = new PagedText(allAccounts, accountsInfo);
+
+    // The user whose activity feed is shown in friendsInfo, and the sequence number of the newest event shown.
+    private String feedUserId;
+    private long feedSequence;
+
     /**
      * Constructs an instance of ViewData
      * @param accessController An instance of AccessController.
@@ -99,7 +122,8 @@ public class ViewData {
     }
 
     /**
-     * Gets info of all accounts stored in the program and puts it inside a JScrollPane inside panel.
+     * Gets info of all accounts stored in the program and puts it inside a JScrollPane inside panel, headed by how
+     * often planner and template views were served from their caches.
      * @param panel Panel where accounts data will be added.
      * @return JScrollPane containing accounts data.
      */
@@ -120,12 +144,25 @@ public class ViewData {
     }
 
     /**
-     * Gets info about the current user's friends and puts it inside a JScrollPane inside panel.
+     * Gets the recent activity of the current user's friends and puts it inside a JScrollPane inside panel. Only the
+     * events that are new since the feed was last shown are fetched.
      * @param panel Panel where the friends' data will be added.
      * @return JScrollPane containing the friends' data.
      */
     public JScrollPane getFriendsInfo(JPanel panel) {
-        this.updateFriendList(accessController.getCurrUserId(), panel);
+        this.updateFriendFeed(panel);
+        return this.friends;
+    }
+
+    /**
+     * Gets info about a friend of the current user and the friend's planners, or about every friend if friendId is
+     * empty, and puts it inside a JScrollPane inside panel.
+     * @param friendId ID of the friend, or an empty String.
+     * @param panel Panel where the friends' data will be added.
+     * @return JScrollPane containing the friends' data.
+     */
+    public JScrollPane getFriendDetails(String friendId, JPanel panel) {
+        this.updateFriendDetails(friendId, panel);
         return this.friends;
     }
 
@@ -142,14 +179,21 @@ public class ViewData {
 
     private void updateTemplates(JPanel panel, boolean publishedTemplatesOnly) {
         this.scrollPaneInit(templates, panel);
-        templateInfo.setText(templateController.detailViewAllTemplates(publishedTemplatesOnly));
+        templatePages.clear();
+        templatePages.add(publishedTemplatesOnly ? "Published Templates:\n" : "Templates:\n",
+                (cursor, pageSize) -> templateController.getTemplatePage(cursor, pageSize, publishedTemplatesOnly));
+        templatePages.showPage();
         this.textAreaInit(templateInfo);
     }
 
     private void updatePlanners(JPanel panel) {
         String separator = "\n==================\nPublic Planners:\n";
         this.scrollPaneInit(planners, panel);
-        plannerInfo.setText(plannerController.viewUserPlanners() + separator + plannerController.viewPublicPlanners());
+        plannerPages.clear();
+        plannerPages.add("Personal Planners:\n", plannerController::getUserPlannerPage);
+        plannerPages.add(separator, plannerController::getPublicPlannerPage);
+        plannerPages.add("\n==================\nShared by Friends:\n", plannerController::getSharedPlannerPage);
+        plannerPages.showPage();
         this.textAreaInit(plannerInfo);
     }
 
@@ -165,15 +209,62 @@ public class ViewData {
         this.textAreaInit(singleTemplateInfo);
     }
 
-    private void updateFriendList(String id, JPanel panel) {
+    private void updateFriendFeed(JPanel panel) {
         this.scrollPaneInit(friends, panel);
-        friendsInfo.setText(accessController.getFriendsInfo(accessController.getCurrUserId()));
+        friends.setViewportView(friendsInfo);
+        String userId = accessController.getCurrUserId();
+        if (userId == null || !userId.equals(feedUserId)) {
+            feedUserId = userId;
+            feedSequence = 0;
+            friendsInfo.setText(FEED_HEADING + "None yet.\n");
+        }
+        List<PlannerEvent> events = userId == null ? new ArrayList<>()
+                : accessController.getFriendActivity(userId, feedSequence);
+        if (!events.isEmpty()) {
+            if (feedSequence == 0) {
+                friendsInfo.setText(FEED_HEADING);
+            }
+            StringBuilder sb = new StringBuilder();
+            for (PlannerEvent event : events) {
+                sb.append(event).append("\n");
+            }
+            friendsInfo.insert(sb.toString(), FEED_HEADING.length());
+            feedSequence = events.get(0).getSequence();
+            this.trimFeed();
+        }
         this.textAreaInit(friendsInfo);
     }
 
+    /**
+     * Drops the oldest events shown once there are more than a feed holds.
+     */
+    private void trimFeed() {
+        // the heading is line 0, and the text ends with a newline, so its last line is empty
+        if (friendsInfo.getLineCount() - 2 > AccessController.FEED_SIZE) {
+            try {
+                friendsInfo.replaceRange("", friendsInfo.getLineStartOffset(AccessController.FEED_SIZE + 1),
+                        friendsInfo.getDocument().getLength());
+            } catch (BadLocationException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void updateFriendDetails(String friendId, JPanel panel) {
+        this.scrollPaneInit(friends, panel);
+        friends.setViewportView(friendDetailsInfo);
+        String userId = accessController.getCurrUserId();
+        friendDetailsInfo.setText(friendId.isEmpty() ? accessController.getFriendsInfo(userId)
+                : accessController.getFriendInfo(userId, friendId));
+        friendDetailsInfo.setCaretPosition(0);
+        this.textAreaInit(friendDetailsInfo);
+    }
+
     private void updateAccountsInfo(JPanel panel) {
         this.scrollPaneInit(allAccounts, panel);
-        accountsInfo.setText(accessController.viewAllAccount());
+        accountPages.clear();
+        accountPages.add(this.renderStats() + "Accounts:\n", accessController::getAccountPage);
+        accountPages.showPage();
         this.textAreaInit(accountsInfo);
     }
 
@@ -189,6 +280,14 @@ public class ViewData {
         this.textAreaInit(trashBinInfo);
     }
 
+    /**
+     * @return A header for the admin account listing telling how many planner and template views were served from
+     * their caches.
+     */
+    private String renderStats() {
+        return plannerController.getRenderStats() + "\n" + templateController.getRenderStats() + "\n\n";
+    }
+
     private void scrollPaneInit(JScrollPane js, JPanel jp) {
         js.setBounds(25, 25, 400, 500);
         js.setBackground(new Color(143, 141, 141));
@@ -201,4 +300,78 @@ public class ViewData {
         ta.setLayout(null);
     }
 
+    /**
+     * Fetches the page of a listing after cursor.
+     */
+    private interface PageSource {
+        Page<?> fetch(int cursor, int pageSize);
+    }
+
+    /**
+     * Shows listings in a text area one page at a time. The first page is shown right away, and the next one is
+     * appended when the user scrolls to the bottom. The listings are shown one after another, each after its heading.
+     */
+    private static class PagedText implements AdjustmentListener {
+        private final JTextArea textArea;
+        private final Deque<String> headings = new ArrayDeque<>();
+        private final Deque<PageSource> sources = new ArrayDeque<>();
+        private int cursor = Page.START;
+
+        PagedText(JScrollPane scrollPane, JTextArea textArea) {
+            this.textArea = textArea;
+            // appending a page must not move the view to the end, which would fetch the page after it right away
+            ((DefaultCaret) textArea.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
+            scrollPane.getVerticalScrollBar().addAdjustmentListener(this);
+        }
+
+        void clear() {
+            this.headings.clear();
+            this.sources.clear();
+            this.cursor = Page.START;
+            this.textArea.setText("");
+        }
+
+        void add(String heading, PageSource source) {
+            this.headings.add(heading);
+            this.sources.add(source);
+        }
+
+        /**
+         * Appends the next PAGE_SIZE items, moving on to the next listing when one runs out.
+         */
+        void showPage() {
+            StringBuilder text = new StringBuilder();
+            int shown = 0;
+            while (shown < PAGE_SIZE && !this.sources.isEmpty()) {
+                if (this.cursor == Page.START) {
+                    text.append(this.headings.peek());
+                }
+                Page<?> page = this.sources.peek().fetch(this.cursor, PAGE_SIZE - shown);
+                for (Object item : page.getItems()) {
+                    text.append(item).append("\n");
+                }
+                if (this.cursor == Page.START && page.getItems().isEmpty()) {
+                    text.append("None yet.\n");
+                }
+                shown += page.getItems().size();
+                if (page.hasNext()) {
+                    this.cursor = page.getNextCursor();
+                } else {
+                    this.headings.poll();
+                    this.sources.poll();
+                    this.cursor = Page.START;
+                }
+            }
+            this.textArea.append(text.toString());
+        }
+
+        @Override
+        public void adjustmentValueChanged(AdjustmentEvent e) {
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (!this.sources.isEmpty() && bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum()) {
+                this.showPage();
+            }
+        }
+    }
+
 }
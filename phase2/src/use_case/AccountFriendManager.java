@@ -7,17 +7,20 @@ import java.util.List;
 
 /**
  * Manages friend functionalities for users stored in AccountManager (check if two users are friends, delete friend,
- * add friend, etc.)
+ * add friend, etc.). The friendships are kept in a FriendGraph keyed by the dense IDs of the accounts.
  */
 public class AccountFriendManager {
     private final AccountManager accManager;
+    private final FriendGraph friendGraph;
 
     /**
      * Constructs an AccountFriendManager.
      * @param accManager An instance of AccountManager that stores Accounts that AccountFriendManager can operate on.
+     * @param friendGraph The FriendGraph the friendships of the accounts are kept in.
      */
-    public AccountFriendManager(AccountManager accManager) {
+    public AccountFriendManager(AccountManager accManager, FriendGraph friendGraph) {
         this.accManager = accManager;
+        this.friendGraph = friendGraph;
     }
 
     /**
@@ -27,9 +30,7 @@ public class AccountFriendManager {
      * @return whether the 2 users are friends or not
      */
     public boolean isFriend(String selfId, String friendId){
-        return accManager.getAllAccount().contains(accManager.findAccount(friendId))
-                && accManager.getAllAccount().contains(accManager.findAccount(selfId))
-                && accManager.findAccount(selfId).findFriend(accManager.findAccount(friendId));
+        return friendGraph.areFriends(accManager.getId(selfId), accManager.getId(friendId));
     }
 
     /**
@@ -39,14 +40,7 @@ public class AccountFriendManager {
      * @return whether adding friend is successful or not
      */
     public boolean addFriend(String selfId, String friendId){
-        if (accManager.getAllAccount().contains(accManager.findAccount(friendId))
-                && !accManager.findAccount(selfId).getFriends().contains(accManager.findAccount(friendId))){
-            accManager.findAccount(selfId).addFriend(accManager.findAccount(friendId));
-            accManager.findAccount(friendId).addFriend(accManager.findAccount(selfId));
-            return true;
-        } else {
-            return false;
-        }
+        return friendGraph.addFriendship(accManager.getId(selfId), accManager.getId(friendId));
     }
 
     /**
@@ -56,13 +50,7 @@ public class AccountFriendManager {
      * @return whether deleting friend is successful or not
      */
     public boolean deleteFriend(String selfId, String friendId){
-        if (accManager.getAllAccount().contains(accManager.findAccount(friendId)) && isFriend(selfId, friendId)){
-            accManager.findAccount(selfId).removeFriend(accManager.findAccount(friendId));
-            accManager.findAccount(friendId).removeFriend(accManager.findAccount(selfId));
-            return true;
-        } else {
-            return false;
-        }
+        return friendGraph.removeFriendship(accManager.getId(selfId), accManager.getId(friendId));
     }
 
     /**
@@ -71,12 +59,74 @@ public class AccountFriendManager {
      * @return List of friend ids (String) of the user
      */
     public List<String> getFriends(String selfId){
-        List<Account> friends = accManager.findAccount(selfId).getFriends();
-        List<String> friendIds = new ArrayList<>();
-        for (Account i : friends){
-            friendIds.add(i.getUserId());
+        return toUserIds(friendGraph.getFriends(accManager.getId(selfId)));
+    }
+
+    /**
+     * Returns the friends that 2 users have in common
+     * @param selfId the id of the first user
+     * @param otherId the id of the 2nd user
+     * @return List of the ids (String) of the users that are friends of both
+     */
+    public List<String> getMutualFriends(String selfId, String otherId){
+        return toUserIds(friendGraph.getMutualFriends(accManager.getId(selfId), accManager.getId(otherId)));
+    }
+
+    /**
+     * Returns the users that can be reached from a user by following at most hops friendships, e.g., friends and
+     * friends of friends for 2 hops
+     * @param selfId the user
+     * @param hops the largest number of friendships followed
+     * @return List of the ids (String) of the users reached, not including the user
+     */
+    public List<String> getNeighbourhood(String selfId, int hops){
+        return toUserIds(friendGraph.getNeighbourhood(accManager.getId(selfId), hops));
+    }
+
+    /**
+     * return whether 2 users are at most hops friendships apart
+     * @param selfId the id of the first user
+     * @param otherId the id of the 2nd user
+     * @param hops the largest number of friendships between the users
+     * @return whether the 2nd user can be reached from the first one in at most hops friendships
+     */
+    public boolean isWithinHops(String selfId, String otherId, int hops){
+        int self = accManager.getId(selfId);
+        int other = accManager.getId(otherId);
+        return self > 0 && other > 0 && friendGraph.isWithinHops(self, other, hops);
+    }
+
+    /**
+     * Suggests friends for a user: the friends of their friends, by number of mutual friends
+     * @param selfId the user
+     * @param limit the largest number of users suggested
+     * @return List of the ids (String) of the suggested users, most mutual friends first
+     */
+    public List<String> suggestFriends(String selfId, int limit){
+        List<String> suggestions = new ArrayList<>();
+        for (int id : friendGraph.suggestFriends(accManager.getId(selfId), limit,
+                c -> accManager.findAccount(c) != null)){
+            suggestions.add(accManager.findAccount(id).getUserId());
         }
-        return friendIds;
+        return suggestions;
     }
 
+    /**
+     * Removes every friendship of an account that has been removed from AccountManager.
+     * @param account the removed account
+     */
+    public void forgetAccount(Account account){
+        friendGraph.removeAccount(account.getId());
+    }
+
+    private List<String> toUserIds(int[] ids){
+        List<String> userIds = new ArrayList<>();
+        for (int id : ids){
+            Account account = accManager.findAccount(id);
+            if (account != null) {
+                userIds.add(account.getUserId());
+            }
+        }
+        return userIds;
+    }
 }
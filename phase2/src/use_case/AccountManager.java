@@ -5,6 +5,7 @@ import entity.*;
 import java.io.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.IntPredicate;
 
 
 /**
@@ -13,8 +14,13 @@ import java.util.*;
 public class AccountManager implements Serializable{
     private final Map<String, Account> idToAccount;
     private final Map<String, Account> emailToAccount;
+    private final List<Account> accounts;  // indexed by the dense ID of the account, null where none is stored
 
     private final PasswordCalculator passwordCalculator = new PasswordCalculator();
+    private transient IdAllocator idAllocator = new IdAllocator();
+    // usernames and emails by dense ID for type-ahead lookups, built on first lookup
+    private transient NameIndex userNameIndex;
+    private transient NameIndex emailIndex;
 
     /**
      * Create an AccountManager Object.
@@ -22,8 +28,17 @@ public class AccountManager implements Serializable{
     public AccountManager(){
         this.emailToAccount = new HashMap<>();
         this.idToAccount = new HashMap<>();
+        this.accounts = new ArrayList<>();
         }
 
+    /**
+     * Sets the allocator the dense IDs of new accounts are taken from.
+     * @param idAllocator An IdAllocator object, which has been advanced past the IDs of the loaded accounts.
+     */
+    public void setIdAllocator(IdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
+    }
+
     /**
      * Change the userName of an account
      * @param retriever A String representing the user ID or Email.
@@ -32,6 +47,9 @@ public class AccountManager implements Serializable{
     public void setUserName(String retriever, String userName){
         Account account = this.findAccount(retriever);
         account.setUserName(userName);
+        if (this.userNameIndex != null) {
+            this.userNameIndex.put(account.getId(), userName);
+        }
     }
 
     /***
@@ -52,12 +70,23 @@ public class AccountManager implements Serializable{
     }
 
     /**
-     * Add an Account object to the Maps.
+     * Add an Account object to the Maps. An account stored before accounts had a dense ID is assigned one.
      * @param acc An Account object we want to assign.
      */
     public void addAccount(Account acc) {
+        if (acc.getId() == 0) {
+            acc.setId(this.idAllocator.nextId());
+        }
+        while (this.accounts.size() <= acc.getId()) {
+            this.accounts.add(null);
+        }
+        this.accounts.set(acc.getId(), acc);
         this.idToAccount.put(acc.getUserId(), acc);
         this.emailToAccount.put(acc.getEmail(), acc);
+        if (this.userNameIndex != null) {
+            this.userNameIndex.put(acc.getId(), acc.getUserName());
+            this.emailIndex.put(acc.getId(), acc.getEmail());
+        }
     }
 
     /**
@@ -86,12 +115,106 @@ public class AccountManager implements Serializable{
         }
     }
 
+    /**
+     * find an account by its dense ID.
+     * @param id An integer representing the dense ID of the account.
+     * @return the account if the account is found, null if otherwise.
+     */
+    public Account findAccount(int id){
+        return id > 0 && id < this.accounts.size() ? this.accounts.get(id) : null;
+    }
+
+    /**
+     * find accounts as the user types: the account whose user ID or email is text, then the accounts whose
+     * username or email starts with text, then the ones whose username or email contains it.
+     * @param text the text the user has typed so far.
+     * @param limit the largest number of accounts returned.
+     * @return the user IDs of the accounts found, best first.
+     */
+    public List<String> lookUpAccounts(String text, int limit){
+        if (this.userNameIndex == null) {
+            NameIndex userNames = new NameIndex();
+            NameIndex emails = new NameIndex();
+            for (Account account : this.accounts) {
+                if (account != null) {
+                    userNames.put(account.getId(), account.getUserName());
+                    emails.put(account.getId(), account.getEmail());
+                }
+            }
+            this.userNameIndex = userNames;
+            this.emailIndex = emails;
+        }
+        Set<Integer> found = new LinkedHashSet<>();
+        Account exact = this.findAccount(text);
+        if (exact != null && limit > 0) {
+            found.add(exact.getId());
+        }
+        IntPredicate isNew = id -> !found.contains(id);
+        found.addAll(this.userNameIndex.startingWith(text, limit - found.size(), isNew));
+        found.addAll(this.emailIndex.startingWith(text, limit - found.size(), isNew));
+        found.addAll(this.userNameIndex.containing(text, limit - found.size(), isNew));
+        found.addAll(this.emailIndex.containing(text, limit - found.size(), isNew));
+        List<String> res = new ArrayList<>();
+        for (int id : found) {
+            res.add(this.accounts.get(id).getUserId());
+        }
+        return res;
+    }
+
+    /**
+     * return a page of the accounts, in the order of their dense IDs.
+     * @param cursor the cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize the largest number of accounts in the page, which must be positive.
+     * @param includeAdmins whether admin accounts are listed.
+     * @return the page of the summaries of the accounts.
+     */
+    public Page<AccountSummary> getAccountPage(int cursor, int pageSize, boolean includeAdmins){
+        List<AccountSummary> items = new ArrayList<>();
+        int last = Page.START;
+        for (int id = Math.max(cursor, 0) + 1; id < this.accounts.size(); id++) {
+            Account account = this.accounts.get(id);
+            if (account == null || (!includeAdmins && account.getAccountType().equals("admin"))) {
+                continue;
+            }
+            if (items.size() == pageSize) {
+                // there is an account after the page
+                return new Page<>(items, last);
+            }
+            items.add(new AccountSummary(account));
+            last = id;
+        }
+        return new Page<>(items, Page.START);
+    }
+
+    /**
+     * find the dense ID of an account by email or userId.
+     * @param retriever A String representing the user ID or Email.
+     * @return the dense ID of the account if the account is found, 0 if otherwise.
+     */
+    public int getId(String retriever){
+        Account account = this.findAccount(retriever);
+        return account == null ? 0 : account.getId();
+    }
+
+    /**
+     * Takes the next dense ID whose decimal form is not the user ID of an account stored before accounts had a
+     * dense ID.
+     * @return The ID.
+     */
+    private int nextAccountId(){
+        int id = this.idAllocator.nextId();
+        while (this.idToAccount.containsKey(Integer.toString(id))) {
+            id = this.idAllocator.nextId();
+        }
+        return id;
+    }
+
     /**
      * create a regular account, add it to all accounts and the Maps.
      * @return the userId of the new account.
      */
     private String createRegAcc(String email){
-        UserAccount newAccount = new UserAccount(email);
+        UserAccount newAccount = new UserAccount(this.nextAccountId(), email);
         this.addAccount(newAccount);
         return newAccount.getUserId();
     }
@@ -101,7 +224,7 @@ public class AccountManager implements Serializable{
      * @return the userId of the new account.
      */
     private String createAdminAcc(String email){
-        AdminAccount newAccount = new AdminAccount(email);
+        AdminAccount newAccount = new AdminAccount(this.nextAccountId(), email);
         this.addAccount(newAccount);
         return newAccount.getUserId();
     }
@@ -111,7 +234,7 @@ public class AccountManager implements Serializable{
      * @return the userId of the new account.
      */
     private String createTrialAcc(){
-        TrialAccount newAccount = new TrialAccount();
+        TrialAccount newAccount = new TrialAccount(this.nextAccountId());
         newAccount.setEmail(newAccount.getUserId());
         this.addAccount(newAccount);
         return newAccount.getUserId();
@@ -122,7 +245,7 @@ public class AccountManager implements Serializable{
      * @return the userId of the new account.
      */
     public String createTempAcc(String email){
-        TemporaryAccount newAccount = new TemporaryAccount(email);
+        TemporaryAccount newAccount = new TemporaryAccount(this.nextAccountId(), email);
         LocalDateTime startDate = newAccount.getStartDate();
         long days = 30;
 
@@ -162,6 +285,11 @@ public class AccountManager implements Serializable{
         if (this.getAllAccount().contains(account)) {
             idToAccount.remove(account.getUserId());
             emailToAccount.remove(account.getEmail());
+            accounts.set(account.getId(), null);
+            if (userNameIndex != null) {
+                userNameIndex.remove(account.getId());
+                emailIndex.remove(account.getId());
+            }
             return true; //Return true if the account object is in the collection.
         } else {
             return false; //Return false if the account object is not in the collection.
@@ -184,6 +312,11 @@ public class AccountManager implements Serializable{
         if (this.getAllAccount().contains(account) && isAfter) {
             idToAccount.remove(account.getUserId());
             emailToAccount.remove(account.getEmail());
+            accounts.set(account.getId(), null);
+            if (userNameIndex != null) {
+                userNameIndex.remove(account.getId());
+                emailIndex.remove(account.getId());
+            }
             return true; //Return true if the account object is deleted.
         } else {
             return false; //Return false if the account object is not deleted.
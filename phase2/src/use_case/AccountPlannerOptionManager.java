@@ -1,11 +1,9 @@
 package use_case;
 
 import entity.Account;
+import entity.IntSet;
 import entity.UserAccount;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Objects;
 
 /**
@@ -13,6 +11,10 @@ import java.util.Objects;
  */
 public class AccountPlannerOptionManager {
     private final AccountManager accountManager;
+    // Built on first use, once the accounts are loaded. Owners map every planner held by a user account, whether in
+    // its planners or in its trash; activePlanners only has the planners that are not in a trash.
+    private IntObjectMap<UserAccount> plannerToOwner;
+    private IntSet activePlanners;
 
     /**
      * Constructs an AccountPlannerOptionManager.
@@ -28,12 +30,17 @@ public class AccountPlannerOptionManager {
      * @param plannerId An Planner id that need to be added.
      * @return A boolean value representing whether the adding is successful or not.
      */
-    public boolean setPlanners(String retriever, String  plannerId){
+    public boolean setPlanners(String retriever, int plannerId){
         Account account = this.accountManager.findAccount(retriever);
         String status = account.getAccountType();
 
         if (status.equals("regular") | status.equals("temporary")){
-            return ((UserAccount) account).setPlanners(plannerId);
+            boolean flag = ((UserAccount) account).setPlanners(plannerId);
+            if (flag && this.plannerToOwner != null) {
+                this.plannerToOwner.put(plannerId, (UserAccount) account);
+                this.activePlanners.add(plannerId);
+            }
+            return flag;
         } else {
             return false;
         }
@@ -42,38 +49,37 @@ public class AccountPlannerOptionManager {
     /**
      * Get all planners created by the given user
      * @param retriever A String representing the User ID or Email.
-     * @return List of Planner that owned by this account, if the account is regular. Else, return
-     * null.
+     * @return IntSet of the ids of the planners owned by this account, or of the planners owned by any non-admin
+     * account if this account is an admin.
      */
-    public List<String> getPlanners(String retriever) {
+    public IntSet getPlanners(String retriever) {
         Account account = this.accountManager.findAccount(retriever);
         String status = account.getAccountType();
 
         if (status.equals("regular") || status.equals("temporary") || status.equals("trial") ){
             return ((UserAccount) account).getPlanner();
         } else if (status.equals("admin")){
-            HashSet<String> ids = new HashSet<>();
-            for (Account acc: accountManager.getAllAccount()) {
-                if (!accountManager.checkAccountRole(acc.getUserId()).equals("admin")) {
-                    ids.addAll(this.getPlanners(acc.getUserId()));
-                }
-            }
-            return new ArrayList<>(ids);
+            this.buildIndex();
+            return new IntSet(this.activePlanners);
         }
-        return new ArrayList<>();
+        return new IntSet();
     }
 
     /**
      * Remove given planner from user's planners
      * @param retriever A String representing the User ID or Email.
-     * @param plannerId A String representing the planner id.
+     * @param plannerId An integer representing the planner id.
      */
-    public boolean removePlanner(String retriever, String plannerId) {
+    public boolean removePlanner(String retriever, int plannerId) {
         Account account = this.accountManager.findAccount(retriever);
         String status = account.getAccountType();
 
         if (!Objects.equals(status, "admin")) {
-            return ((UserAccount) account).removePlanner(plannerId);
+            boolean flag = ((UserAccount) account).removePlanner(plannerId);
+            if (flag && this.activePlanners != null) {
+                this.activePlanners.remove(plannerId);
+            }
+            return flag;
         } else {
             return false;
         }
@@ -82,9 +88,9 @@ public class AccountPlannerOptionManager {
     /**
      * return the trashed planners of the given user
      * @param userId the user id of the user
-     * @return List<String> that contains trashed planners of the user
+     * @return IntSet that contains the ids of the trashed planners of the user
      */
-    public List<String> getTrashPlanner(String userId){
+    public IntSet getTrashPlanner(String userId){
         UserAccount acc = (UserAccount) accountManager.findAccount(userId);
         return acc.getTrashPlanner();
     }
@@ -95,11 +101,13 @@ public class AccountPlannerOptionManager {
      * @param plannerId the id of the planner
      * @return whether the removing and adding are successful or not
      */
-    public boolean unTrashPlanner(String userId, String plannerId){
+    public boolean unTrashPlanner(String userId, int plannerId){
         UserAccount acc = (UserAccount) accountManager.findAccount(userId);
-        if (acc.getTrashPlanner().contains(plannerId)){
+        if (acc.removeFromTrash(plannerId)){
             acc.setPlanners(plannerId);
-            acc.removeFromTrash(plannerId);
+            if (this.activePlanners != null) {
+                this.activePlanners.add(plannerId);
+            }
             return true;
         } else {
             return false;
@@ -109,11 +117,62 @@ public class AccountPlannerOptionManager {
     /**
      * remove the planner permanently.
      * @param userId A String representing the user id
-     * @param plannerId A String representing the planner id.
+     * @param plannerId An integer representing the planner id.
      * @return whether the removing is successful or not
      */
-    public boolean permanentTrashPlanner(String userId, String plannerId) {
+    public boolean permanentTrashPlanner(String userId, int plannerId) {
         UserAccount acc = (UserAccount) accountManager.findAccount(userId);
-        return acc.removeFromTrash(plannerId);
+        boolean flag = acc.removeFromTrash(plannerId);
+        if (flag && this.plannerToOwner != null) {
+            this.plannerToOwner.remove(plannerId);
+        }
+        return flag;
+    }
+
+    /**
+     * Finds the account holding the planner, in its planners or in its trash.
+     * @param plannerId An integer representing the planner id.
+     * @return The user ID of the owner, or null if no account holds the planner.
+     */
+    public String getOwner(int plannerId) {
+        this.buildIndex();
+        UserAccount owner = this.plannerToOwner.get(plannerId);
+        return owner == null ? null : owner.getUserId();
+    }
+
+    /**
+     * Forgets the planners of an account that has been removed from AccountManager.
+     * @param account The removed account.
+     */
+    public void forgetOwner(Account account) {
+        if (this.plannerToOwner == null || !(account instanceof UserAccount)) {
+            return;
+        }
+        UserAccount acc = (UserAccount) account;
+        acc.getPlanner().forEach(plannerId -> {
+            this.plannerToOwner.remove(plannerId);
+            this.activePlanners.remove(plannerId);
+        });
+        acc.getTrashPlanner().forEach(this.plannerToOwner::remove);
+    }
+
+    private void buildIndex() {
+        if (this.plannerToOwner != null) {
+            return;
+        }
+        IntObjectMap<UserAccount> owners = new IntObjectMap<>();
+        IntSet active = new IntSet();
+        for (Account account: accountManager.getAllAccount()) {
+            if (account instanceof UserAccount) {
+                UserAccount acc = (UserAccount) account;
+                acc.getPlanner().forEach(plannerId -> {
+                    owners.put(plannerId, acc);
+                    active.add(plannerId);
+                });
+                acc.getTrashPlanner().forEach(plannerId -> owners.put(plannerId, acc));
+            }
+        }
+        this.plannerToOwner = owners;
+        this.activePlanners = active;
     }
 }
@@ -0,0 +1,60 @@
+package use_case;
+
+import entity.Account;
+
+/**
+ * The information of an account shown in listings.
+ */
+public class AccountSummary {
+    private final String userId;
+    private final String userName;
+    private final String email;
+    private final String accountType;
+
+    /**
+     * Creates the summary of account.
+     * @param account The account to summarize.
+     */
+    public AccountSummary(Account account) {
+        this.userId = account.getUserId();
+        this.userName = account.getUserName();
+        this.email = account.getEmail();
+        this.accountType = account.getAccountType();
+    }
+
+    /**
+     * @return A String representing the user ID of the account.
+     */
+    public String getUserId() {
+        return this.userId;
+    }
+
+    /**
+     * @return A String representing the username of the account.
+     */
+    public String getUserName() {
+        return this.userName;
+    }
+
+    /**
+     * @return A String representing the email of the account.
+     */
+    public String getEmail() {
+        return this.email;
+    }
+
+    /**
+     * @return A String representing the type of the account.
+     */
+    public String getAccountType() {
+        return this.accountType;
+    }
+
+    /**
+     * @return A one-line String representation of the account.
+     */
+    @Override
+    public String toString() {
+        return "User ID: " + this.userId + ", " + this.userName + ", " + this.email + " (" + this.accountType + ")";
+    }
+}
@@ -0,0 +1,137 @@
+package use_case;
+
+import entity.Account;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Keeps a feed of the recent planner changes of their friends for every user. A change is pushed to the feed of every
+ * friend of the owner when it is published, if the planner is shared with friends, so reading a feed only looks at the
+ * events that are new to the reader. Every feed keeps the feedSize latest events; feeds are kept in memory only.
+ * Events already in a feed are dropped when their reader stops being a friend of the owner, or when the planner stops
+ * being shared with friends, and a feed only shows the events of planners its reader may still see.
+ */
+public class ActivityFeedManager {
+    private final AccountManager accManager;
+    private final FriendGraph friendGraph;
+    private final PlannerVisibilityManager visibility;
+    private final int feedSize;
+
+    // The latest events of each feed, newest first, keyed by the dense ID of the reader.
+    private final IntObjectMap<ArrayDeque<PlannerEvent>> feeds = new IntObjectMap<>();
+    private long lastSequence = 0;
+
+    /**
+     * Constructs an ActivityFeedManager.
+     * @param accManager The AccountManager that stores the accounts.
+     * @param friendGraph The FriendGraph the friendships of the accounts are kept in.
+     * @param visibility The PlannerVisibilityManager that decides who may see a planner.
+     * @param feedSize The largest number of events kept in a feed.
+     */
+    public ActivityFeedManager(AccountManager accManager, FriendGraph friendGraph,
+                               PlannerVisibilityManager visibility, int feedSize) {
+        this.accManager = accManager;
+        this.friendGraph = friendGraph;
+        this.visibility = visibility;
+        this.feedSize = feedSize;
+    }
+
+    /**
+     * Publishes a change to a planner to the feeds of the friends of its owner, if they may see the planner. Otherwise,
+     * the earlier events of the planner are dropped from those feeds. Publish the deletion of a planner before it is
+     * deleted, since nobody may see it afterwards.
+     * @param ownerId The user ID of the owner of the planner.
+     * @param plannerId The id of the planner.
+     * @param plannerName The name of the planner.
+     * @param change A short description of the change.
+     * @return The published event, or null if the owner is not found.
+     */
+    public PlannerEvent publish(String ownerId, int plannerId, String plannerName, String change) {
+        Account owner = this.accManager.findAccount(ownerId);
+        if (owner == null) {
+            return null;
+        }
+        PlannerEvent event = new PlannerEvent(++this.lastSequence, owner.getUserId(), plannerId, plannerName, change);
+        if (!this.visibility.isSharedWithFriends(plannerId)) {
+            for (int id : this.friendGraph.getFriends(owner.getId())) {
+                ArrayDeque<PlannerEvent> feed = this.feeds.get(id);
+                if (feed != null) {
+                    feed.removeIf(e -> e.getPlannerId() == plannerId);
+                }
+            }
+            return event;
+        }
+        for (int id : this.friendGraph.getFriends(owner.getId())) {
+            ArrayDeque<PlannerEvent> feed = this.feeds.get(id);
+            if (feed == null) {
+                feed = new ArrayDeque<>();
+                this.feeds.put(id, feed);
+            }
+            feed.addFirst(event);
+            if (feed.size() > this.feedSize) {
+                feed.removeLast();
+            }
+        }
+        return event;
+    }
+
+    /**
+     * Returns the events of a feed that are newer than the ones seen before. Events of planners the reader may not see
+     * at the moment, e.g., planners in the trash bin, are left out; events of deleted planners are kept, since they
+     * were shared when they were published.
+     * @param readerId The user ID or email of the reader.
+     * @param afterSequence The sequence number of the newest event seen before, or 0 for none.
+     * @return The newer events, newest first.
+     */
+    public List<PlannerEvent> getFeed(String readerId, long afterSequence) {
+        List<PlannerEvent> events = new ArrayList<>();
+        ArrayDeque<PlannerEvent> feed = this.feeds.get(this.accManager.getId(readerId));
+        if (feed == null) {
+            return events;
+        }
+        Iterator<PlannerEvent> it = feed.iterator();
+        while (it.hasNext()) {
+            PlannerEvent event = it.next();
+            if (event.getSequence() <= afterSequence) {
+                break;
+            }
+            int plannerId = event.getPlannerId();
+            if (this.visibility.isDeleted(plannerId) || this.visibility.canSee(readerId, plannerId)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Drops the events of each of two accounts from the feed of the other, after they stop being friends.
+     * @param selfId The user ID or email of one account.
+     * @param friendId The user ID or email of the other account.
+     */
+    public void forgetFriendship(String selfId, String friendId) {
+        Account self = this.accManager.findAccount(selfId);
+        Account friend = this.accManager.findAccount(friendId);
+        if (self != null && friend != null) {
+            this.dropEventsOf(self.getId(), friend.getUserId());
+            this.dropEventsOf(friend.getId(), self.getUserId());
+        }
+    }
+
+    /**
+     * Drops the feed of an account that has been removed.
+     * @param account The removed account.
+     */
+    public void forgetAccount(Account account) {
+        this.feeds.remove(account.getId());
+    }
+
+    private void dropEventsOf(int readerId, String ownerId) {
+        ArrayDeque<PlannerEvent> feed = this.feeds.get(readerId);
+        if (feed != null) {
+            feed.removeIf(event -> event.getOwnerId().equals(ownerId));
+        }
+    }
+}
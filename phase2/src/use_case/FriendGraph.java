@@ -0,0 +1,287 @@
+package use_case;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * The friendships between accounts, as an undirected graph keyed by the dense IDs of the accounts. The friends of
+ * every account are kept in an IntHashSet, so a friendship is checked, added or removed in constant time. Accounts
+ * refer to each other only through this graph, so saving an account never pulls in its friends.
+ *
+ * Mutual friends are found by walking the smaller of two friend sets and probing the other, so the cost depends on
+ * the account with fewer friends only.
+ */
+public class FriendGraph {
+    private final IntObjectMap<IntHashSet> adjacency = new IntObjectMap<>();
+
+    /**
+     * @param a The dense ID of an account.
+     * @param b The dense ID of another account.
+     * @return true iff the two accounts are friends.
+     */
+    public boolean areFriends(int a, int b) {
+        IntHashSet friends = this.adjacency.get(a);
+        return friends != null && friends.contains(b);
+    }
+
+    /**
+     * Makes two accounts friends of each other.
+     * @param a The dense ID of an account, which must be positive.
+     * @param b The dense ID of another account, which must be positive.
+     * @return true iff the two accounts were not friends before.
+     */
+    public boolean addFriendship(int a, int b) {
+        if (a <= 0 || b <= 0 || a == b || this.areFriends(a, b)) {
+            return false;
+        }
+        this.link(a, b);
+        this.link(b, a);
+        return true;
+    }
+
+    /**
+     * Makes two accounts stop being friends.
+     * @param a The dense ID of an account.
+     * @param b The dense ID of another account.
+     * @return true iff the two accounts were friends before.
+     */
+    public boolean removeFriendship(int a, int b) {
+        if (!this.areFriends(a, b)) {
+            return false;
+        }
+        this.unlink(a, b);
+        this.unlink(b, a);
+        return true;
+    }
+
+    /**
+     * Removes every friendship of an account, e.g., because it was deleted.
+     * @param a The dense ID of the account.
+     */
+    public void removeAccount(int a) {
+        IntHashSet friends = this.adjacency.remove(a);
+        if (friends != null) {
+            friends.forEach(b -> this.unlink(b, a));
+        }
+    }
+
+    /**
+     * @param a The dense ID of an account.
+     * @return A new array with the dense IDs of the friends of the account, in increasing order.
+     */
+    public int[] getFriends(int a) {
+        IntHashSet friends = this.adjacency.get(a);
+        return friends == null ? new int[0] : friends.toSortedArray();
+    }
+
+    /**
+     * @param a The dense ID of an account.
+     * @return Number of friends of the account.
+     */
+    public int numFriends(int a) {
+        IntHashSet friends = this.adjacency.get(a);
+        return friends == null ? 0 : friends.size();
+    }
+
+    /**
+     * @return A new array with the dense IDs of the accounts that have friends, in increasing order.
+     */
+    public int[] getAccounts() {
+        int[] res = new int[this.adjacency.size()];
+        int n = 0;
+        for (Integer id : this.adjacency.keySet()) {
+            res[n++] = id;
+        }
+        Arrays.sort(res);
+        return res;
+    }
+
+    /**
+     * @param a The dense ID of an account.
+     * @param b The dense ID of another account.
+     * @return A new array with the dense IDs of the accounts that are friends of both, in increasing order.
+     */
+    public int[] getMutualFriends(int a, int b) {
+        IntHashSet mutual = new IntHashSet();
+        this.forEachMutualFriend(a, b, mutual::add);
+        return mutual.toSortedArray();
+    }
+
+    /**
+     * @param a The dense ID of an account.
+     * @param b The dense ID of another account.
+     * @return Number of accounts that are friends of both.
+     */
+    public int numMutualFriends(int a, int b) {
+        int[] count = new int[1];
+        this.forEachMutualFriend(a, b, c -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Finds the accounts at most hops friendships away from an account, e.g., its friends and their friends for two
+     * hops.
+     * @param a The dense ID of the account.
+     * @param hops The largest number of friendships between the account and the accounts found.
+     * @return A new array with the dense IDs of the accounts found, other than a itself, in increasing order.
+     */
+    public int[] getNeighbourhood(int a, int hops) {
+        IntHashSet reached = this.reach(a, hops);
+        reached.remove(a);
+        return reached.toSortedArray();
+    }
+
+    /**
+     * Checks whether two accounts are at most hops friendships apart. The accounts reached from both ends are
+     * expanded halfway each, so two hops look at the friends of a and b only.
+     * @param a The dense ID of an account.
+     * @param b The dense ID of another account.
+     * @param hops The largest number of friendships between the two accounts.
+     * @return true iff b can be reached from a by following at most hops friendships.
+     */
+    public boolean isWithinHops(int a, int b, int hops) {
+        if (a == b) {
+            return true;
+        } else if (hops <= 0) {
+            return false;
+        } else if (hops == 1) {
+            return this.areFriends(a, b);
+        }
+        IntHashSet fromA = this.reach(a, (hops + 1) / 2);
+        IntHashSet fromB = this.reach(b, hops / 2);
+        IntHashSet small = fromA.size() <= fromB.size() ? fromA : fromB;
+        IntHashSet large = small == fromA ? fromB : fromA;
+        boolean[] met = new boolean[1];
+        small.forEach(c -> met[0] |= large.contains(c));
+        return met[0];
+    }
+
+    /**
+     * Suggests new friends for an account: the friends of its friends, ranked by the number of friends they share
+     * with it.
+     * @param a The dense ID of the account.
+     * @param limit The largest number of accounts suggested.
+     * @param accept Tells whether an account may be suggested.
+     * @return The dense IDs of the suggested accounts, most mutual friends first. Ties are ordered by ID.
+     */
+    public List<Integer> suggestFriends(int a, int limit, IntPredicate accept) {
+        IntHashSet friends = this.adjacency.get(a);
+        if (friends == null || limit <= 0) {
+            return new ArrayList<>();
+        }
+        IntObjectMap<int[]> mutualCounts = new IntObjectMap<>();
+        friends.forEach(f -> this.adjacency.get(f).forEach(c -> {
+            if (c == a || friends.contains(c)) {
+                return;
+            }
+            int[] count = mutualCounts.get(c);
+            if (count == null) {
+                if (!accept.test(c)) {
+                    return;
+                }
+                count = new int[1];
+                mutualCounts.put(c, count);
+            }
+            count[0]++;
+        }));
+        // a heap of the best suggestions so far, whose root is the worst of them
+        PriorityQueue<Suggestion> best = new PriorityQueue<>(Math.min(limit, Math.max(1, mutualCounts.size())));
+        for (Map.Entry<Integer, int[]> entry : mutualCounts.entrySet()) {
+            Suggestion suggestion = new Suggestion(entry.getKey(), entry.getValue()[0]);
+            if (best.size() < limit) {
+                best.add(suggestion);
+            } else if (suggestion.compareTo(best.peek()) > 0) {
+                best.poll();
+                best.add(suggestion);
+            }
+        }
+        Integer[] ids = new Integer[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = best.poll().id;
+        }
+        return new ArrayList<>(Arrays.asList(ids));
+    }
+
+    /**
+     * Calls action on every friend of both a and b, walking the smaller friend set.
+     */
+    private void forEachMutualFriend(int a, int b, IntConsumer action) {
+        IntHashSet friendsOfA = this.adjacency.get(a);
+        IntHashSet friendsOfB = this.adjacency.get(b);
+        if (friendsOfA == null || friendsOfB == null) {
+            return;
+        }
+        IntHashSet small = friendsOfA.size() <= friendsOfB.size() ? friendsOfA : friendsOfB;
+        IntHashSet large = small == friendsOfA ? friendsOfB : friendsOfA;
+        small.forEach(c -> {
+            if (large.contains(c)) {
+                action.accept(c);
+            }
+        });
+    }
+
+    /**
+     * @return The accounts at most hops friendships away from a, including a, found breadth first.
+     */
+    private IntHashSet reach(int a, int hops) {
+        IntHashSet reached = new IntHashSet();
+        reached.add(a);
+        int[] frontier = {a};
+        for (int hop = 0; hop < hops && frontier.length > 0; hop++) {
+            IntHashSet next = new IntHashSet();
+            for (int b : frontier) {
+                IntHashSet friends = this.adjacency.get(b);
+                if (friends != null) {
+                    friends.forEach(c -> {
+                        if (reached.add(c)) {
+                            next.add(c);
+                        }
+                    });
+                }
+            }
+            frontier = next.toSortedArray();
+        }
+        return reached;
+    }
+
+    private void link(int a, int b) {
+        IntHashSet friends = this.adjacency.get(a);
+        if (friends == null) {
+            friends = new IntHashSet();
+            this.adjacency.put(a, friends);
+        }
+        friends.add(b);
+    }
+
+    private void unlink(int a, int b) {
+        IntHashSet friends = this.adjacency.get(a);
+        friends.remove(b);
+        if (friends.isEmpty()) {
+            this.adjacency.remove(a);
+        }
+    }
+
+    /**
+     * A suggested account. Suggestions compare by mutual friends, and a smaller ID is better on a tie.
+     */
+    private static class Suggestion implements Comparable<Suggestion> {
+        private final int id;
+        private final int mutualFriends;
+
+        private Suggestion(int id, int mutualFriends) {
+            this.id = id;
+            this.mutualFriends = mutualFriends;
+        }
+
+        @Override
+        public int compareTo(Suggestion other) {
+            int byMutual = Integer.compare(this.mutualFriends, other.mutualFriends);
+            return byMutual != 0 ? byMutual : Integer.compare(other.id, this.id);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package use_case;
+
+/**
+ * Durable storage of the high-water mark of an IdAllocator: every id at or above the mark has never been handed out.
+ */
+public interface IIdLeaseStore {
+    /**
+     * Reads the stored high-water mark.
+     * @return The stored high-water mark, or 0 if none has been stored yet.
+     */
+    long read();
+
+    /**
+     * Stores mark as the new high-water mark. It must be durable when this method returns true.
+     * @param mark The new high-water mark.
+     * @return A boolean value representing whether the mark is successfully stored.
+     */
+    boolean write(long mark);
+}
@@ -0,0 +1,36 @@
+package use_case;
+
+import java.util.Map;
+
+/**
+ * A Map with int keys that can be used without boxing the keys.
+ * @param <V> Type of the values of the map.
+ */
+public interface IIntObjectMap<V> extends Map<Integer, V> {
+    /**
+     * @param key The key.
+     * @return The value mapped to key, or null if there is none.
+     */
+    V get(int key);
+
+    /**
+     * @param key The key.
+     * @return true iff a value is mapped to key.
+     */
+    boolean containsKey(int key);
+
+    /**
+     * Maps key to value.
+     * @param key The key.
+     * @param value The value.
+     * @return The value that was mapped to key before, or null if there was none.
+     */
+    V put(int key, V value);
+
+    /**
+     * Removes the value mapped to key.
+     * @param key The key.
+     * @return The value that was mapped to key, or null if there was none.
+     */
+    V remove(int key);
+}
@@ -0,0 +1,48 @@
+package use_case;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * The interface of a store of single entities keyed by id, so that a manager can persist the one entity that changed
+ * instead of its whole map.
+ * @param <K> Type of the ids.
+ * @param <V> Type of the entities.
+ */
+public interface IRepository<K, V> {
+    /**
+     * @param key The id of the entity.
+     * @return The stored entity with id key, null if there is none.
+     */
+    V get(K key);
+
+    /**
+     * Stores value as the entity with id key, replacing any entity stored before.
+     * @param key The id of the entity.
+     * @param value The entity to be stored.
+     * @return A boolean value representing whether the entity is successfully stored.
+     */
+    boolean put(K key, V value);
+
+    /**
+     * Removes the entity with id key.
+     * @param key The id of the entity.
+     * @return A boolean value representing whether the entity is successfully removed.
+     */
+    boolean delete(K key);
+
+    /**
+     * Calls visitor on every stored entity, in no particular order.
+     * @param visitor Called with the id and the entity of every stored entity.
+     */
+    void scan(BiConsumer<K, V> visitor);
+
+    /**
+     * Stores every entity in puts and removes every entity with an id in deletes, written together.
+     * @param puts The entities to be stored, keyed by id.
+     * @param deletes The ids of the entities to be removed.
+     * @return A boolean value representing whether every change is successfully written.
+     */
+    boolean batch(Map<K, V> puts, Collection<K> deletes);
+}
@@ -0,0 +1,72 @@
+package use_case;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out unique ids, safely from several threads at once. Ids are taken from an atomic counter without locking.
+ * When a lease store is given, ids are leased from it in blocks: the end of a block is stored before any id of the
+ * block is handed out, so ids handed out before a restart are never handed out again, even if the program stopped
+ * without saving.
+ */
+public class IdAllocator {
+    private final IIdLeaseStore leaseStore;
+    private final int blockSize;
+    private final AtomicLong next;
+    private volatile long leaseEnd;
+
+    /**
+     * Initializes an IdAllocator that only keeps its state in memory. Ids start from 1.
+     */
+    public IdAllocator() {
+        this.leaseStore = null;
+        this.blockSize = 0;
+        this.next = new AtomicLong(1);
+        this.leaseEnd = Long.MAX_VALUE;
+    }
+
+    /**
+     * Initializes an IdAllocator that continues after the high-water mark stored in leaseStore.
+     * @param leaseStore The store the high-water mark is kept in.
+     * @param blockSize Number of ids leased at once. Larger blocks store the mark less often, and skip more ids on a
+     *                  restart.
+     */
+    public IdAllocator(IIdLeaseStore leaseStore, int blockSize) {
+        this.leaseStore = leaseStore;
+        this.blockSize = blockSize;
+        long mark = Math.max(1, leaseStore.read());
+        this.next = new AtomicLong(mark);
+        this.leaseEnd = mark;
+    }
+
+    /**
+     * Makes sure no id up to maxId is handed out, e.g. because it is used by data that was loaded.
+     * @param maxId The largest id in use.
+     */
+    public void advancePast(long maxId) {
+        this.next.accumulateAndGet(maxId + 1, Math::max);
+    }
+
+    /**
+     * Hands out an id that has not been handed out before.
+     * @return The id.
+     */
+    public int nextId() {
+        long id = this.next.getAndIncrement();
+        if (id >= this.leaseEnd) {
+            this.extendLease(id);
+        }
+        return Math.toIntExact(id);
+    }
+
+    private synchronized void extendLease(long id) {
+        if (id < this.leaseEnd) {
+            return;
+        }
+        // Cover every id handed out by other threads meanwhile, so only one of them has to store the mark.
+        long end = Math.max(id, this.next.get()) + this.blockSize;
+        if (!this.leaseStore.write(end)) {
+            System.out.println("The id high-water mark could not be saved, ids may be reused after a restart.");
+        }
+        this.leaseEnd = end;
+    }
+}
@@ -0,0 +1,198 @@
+package use_case;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A hash set of ints that stores them in an int array, so adding, removing and looking up an int take constant time
+ * without boxing it. Collisions are resolved by linear probing, and removal shifts the following ints back instead of
+ * leaving tombstones. Slots are free when they hold 0, so whether 0 is in the set is kept apart.
+ */
+public class IntHashSet implements Serializable {
+    private static final long serialVersionUID = 4204357386427919712L;
+
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean hasZero;
+
+    /**
+     * Creates an empty IntHashSet.
+     */
+    public IntHashSet() {
+        this.allocate(4);
+    }
+
+    /**
+     * @return Number of ints in this set.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true iff this set has no ints.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param value The int to look for.
+     * @return true iff value is in this set.
+     */
+    public boolean contains(int value) {
+        if (value == FREE) {
+            return this.hasZero;
+        }
+        for (int i = this.slot(value); ; i = (i + 1) & this.mask) {
+            int k = this.keys[i];
+            if (k == value) {
+                return true;
+            } else if (k == FREE) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Adds value to this set.
+     * @param value The int to add.
+     * @return true iff value was not in this set before.
+     */
+    public boolean add(int value) {
+        if (value == FREE) {
+            if (this.hasZero) {
+                return false;
+            }
+            this.hasZero = true;
+            this.size++;
+            return true;
+        }
+        int i = this.slot(value);
+        for (int k = this.keys[i]; k != FREE; k = this.keys[i]) {
+            if (k == value) {
+                return false;
+            }
+            i = (i + 1) & this.mask;
+        }
+        this.keys[i] = value;
+        if (++this.size >= this.resizeAt) {
+            this.rehash(this.keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Removes value from this set.
+     * @param value The int to remove.
+     * @return true iff value was in this set.
+     */
+    public boolean remove(int value) {
+        if (value == FREE) {
+            if (!this.hasZero) {
+                return false;
+            }
+            this.hasZero = false;
+            this.size--;
+            return true;
+        }
+        for (int i = this.slot(value); ; i = (i + 1) & this.mask) {
+            int k = this.keys[i];
+            if (k == value) {
+                this.size--;
+                this.shiftBack(i);
+                return true;
+            } else if (k == FREE) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Calls action on every int of this set, in no particular order.
+     * @param action The action to call.
+     */
+    public void forEach(IntConsumer action) {
+        if (this.hasZero) {
+            action.accept(FREE);
+        }
+        for (int k : this.keys) {
+            if (k != FREE) {
+                action.accept(k);
+            }
+        }
+    }
+
+    /**
+     * @return A new array with the ints of this set, in increasing order.
+     */
+    public int[] toSortedArray() {
+        int[] res = new int[this.size];
+        int n = 0;
+        if (this.hasZero) {
+            res[n++] = FREE;
+        }
+        for (int k : this.keys) {
+            if (k != FREE) {
+                res[n++] = k;
+            }
+        }
+        Arrays.sort(res);
+        return res;
+    }
+
+    private int slot(int value) {
+        return (value ^ (value >>> 16)) & this.mask;
+    }
+
+    /**
+     * Fills the slot at pos, which has just been emptied, by moving back the ints after it that can no longer be
+     * reached from their own slot.
+     */
+    private void shiftBack(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & this.mask;
+            int k;
+            while (true) {
+                k = this.keys[pos];
+                if (k == FREE) {
+                    this.keys[last] = FREE;
+                    return;
+                }
+                int slot = this.slot(k);
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & this.mask;
+            }
+            this.keys[last] = k;
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = this.keys;
+        this.allocate(capacity);
+        for (int k : oldKeys) {
+            if (k != FREE) {
+                int i = this.slot(k);
+                while (this.keys[i] != FREE) {
+                    i = (i + 1) & this.mask;
+                }
+                this.keys[i] = k;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = Math.max(1, (int) (capacity * LOAD_FACTOR));
+    }
+}
@@ -0,0 +1,310 @@
+package use_case;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A hash map from int keys to values that stores its keys in an int array, so lookups neither box the key nor follow
+ * a pointer to an entry. Collisions are resolved by linear probing, and removal shifts the following entries back
+ * instead of leaving tombstones. Slots are free when their key is 0, so the value of key 0 is stored apart.
+ * The iterators of the views do not support removal.
+ * @param <V> Type of the values of the map.
+ */
+public class IntObjectMap<V> extends AbstractMap<Integer, V> implements IIntObjectMap<V>, Serializable {
+    private static final long serialVersionUID = -3139604838407366528L;
+
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeAt;
+    private int size;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    /**
+     * Creates an empty IntObjectMap.
+     */
+    public IntObjectMap() {
+        this(8);
+    }
+
+    /**
+     * Creates an empty IntObjectMap that holds expectedSize entries without growing.
+     * @param expectedSize Number of entries expected to be put in the map.
+     */
+    public IntObjectMap(int expectedSize) {
+        this.allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Creates an IntObjectMap with the entries of map.
+     * @param map The map whose entries are copied.
+     */
+    public IntObjectMap(Map<Integer, ? extends V> map) {
+        this(map.size());
+        for (Map.Entry<Integer, ? extends V> entry: map.entrySet()) {
+            this.put(entry.getKey().intValue(), entry.getValue());
+        }
+    }
+
+    @Override
+    public V get(int key) {
+        if (key == FREE) {
+            return this.zeroValue;
+        }
+        for (int i = this.slot(key); ; i = (i + 1) & this.mask) {
+            int k = this.keys[i];
+            if (k == key) {
+                return this.valueAt(i);
+            } else if (k == FREE) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        if (key == FREE) {
+            return this.hasZeroKey;
+        }
+        for (int i = this.slot(key); ; i = (i + 1) & this.mask) {
+            int k = this.keys[i];
+            if (k == key) {
+                return true;
+            } else if (k == FREE) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    public V put(int key, V value) {
+        if (key == FREE) {
+            V old = this.zeroValue;
+            if (!this.hasZeroKey) {
+                this.hasZeroKey = true;
+                this.size++;
+            }
+            this.zeroValue = value;
+            return old;
+        }
+        int i = this.slot(key);
+        for (int k = this.keys[i]; k != FREE; k = this.keys[i]) {
+            if (k == key) {
+                V old = this.valueAt(i);
+                this.values[i] = value;
+                return old;
+            }
+            i = (i + 1) & this.mask;
+        }
+        this.keys[i] = key;
+        this.values[i] = value;
+        if (++this.size >= this.resizeAt) {
+            this.rehash(this.keys.length * 2);
+        }
+        return null;
+    }
+
+    @Override
+    public V remove(int key) {
+        if (key == FREE) {
+            V old = this.zeroValue;
+            if (this.hasZeroKey) {
+                this.hasZeroKey = false;
+                this.zeroValue = null;
+                this.size--;
+            }
+            return old;
+        }
+        for (int i = this.slot(key); ; i = (i + 1) & this.mask) {
+            int k = this.keys[i];
+            if (k == key) {
+                V old = this.valueAt(i);
+                this.size--;
+                this.shiftBack(i);
+                return old;
+            } else if (k == FREE) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? this.get(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && this.containsKey(((Integer) key).intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return this.put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer ? this.remove(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.keys, FREE);
+        Arrays.fill(this.values, null);
+        this.hasZeroKey = false;
+        this.zeroValue = null;
+        this.size = 0;
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<Entry<Integer, V>>() {
+            @Override
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new SlotIterator<Entry<Integer, V>>() {
+                    @Override
+                    Entry<Integer, V> at(int slot) {
+                        return slot < 0 ? new SimpleImmutableEntry<>(FREE, zeroValue)
+                                : new SimpleImmutableEntry<>(keys[slot], valueAt(slot));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return IntObjectMap.this.size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<V>() {
+                    @Override
+                    V at(int slot) {
+                        return slot < 0 ? zeroValue : valueAt(slot);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return IntObjectMap.this.size;
+            }
+        };
+    }
+
+    /**
+     * Visits the entry of key 0 first, as slot -1, and then every used slot in order.
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int slot = hasZeroKey ? -1 : this.nextUsed(0);
+
+        abstract T at(int slot);
+
+        @Override
+        public boolean hasNext() {
+            return this.slot < keys.length;
+        }
+
+        @Override
+        public T next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T next = this.at(this.slot);
+            this.slot = this.nextUsed(this.slot + 1);
+            return next;
+        }
+
+        private int nextUsed(int from) {
+            int i = from;
+            while (i < keys.length && keys[i] == FREE) {
+                i++;
+            }
+            return i;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) this.values[slot];
+    }
+
+    private int slot(int key) {
+        // Spreads the keys like HashMap does, so dense ids fill consecutive slots and are iterated in the same order.
+        return (key ^ (key >>> 16)) & this.mask;
+    }
+
+    /**
+     * Fills the slot at pos, which has just been emptied, by moving back the entries after it that can no longer be
+     * reached from their own slot.
+     */
+    private void shiftBack(int pos) {
+        while (true) {
+            int last = pos;
+            pos = (pos + 1) & this.mask;
+            int k;
+            while (true) {
+                k = this.keys[pos];
+                if (k == FREE) {
+                    this.keys[last] = FREE;
+                    this.values[last] = null;
+                    return;
+                }
+                int slot = this.slot(k);
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & this.mask;
+            }
+            this.keys[last] = k;
+            this.values[last] = this.values[pos];
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k != FREE) {
+                int i = this.slot(k);
+                while (this.keys[i] != FREE) {
+                    i = (i + 1) & this.mask;
+                }
+                this.keys[i] = k;
+                this.values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.resizeAt = Math.max(1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 8;
+        while (capacity * LOAD_FACTOR <= expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+}
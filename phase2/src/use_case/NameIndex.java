@@ -0,0 +1,144 @@
+package use_case;
+
+import entity.IntSet;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * An index from names to the ids they belong to, for type-ahead lookups. Names are kept in a sorted map, so the
+ * names starting with a prefix are found next to each other, and every name is split into its trigrams (substrings
+ * of three characters), so the names containing a text are found among the ids that have all the trigrams of the
+ * text. Names are compared in lower case.
+ */
+public class NameIndex {
+    private static final int GRAM = 3;
+
+    private final TreeMap<String, IntSet> nameToIds = new TreeMap<>();
+    private final IntObjectMap<String> idToName = new IntObjectMap<>();
+    private final Map<String, IntSet> gramToIds = new HashMap<>();
+
+    /**
+     * Sets the name of id, replacing the one it had before.
+     * @param id An integer representing the id.
+     * @param name The name of id, or null to give it none.
+     */
+    public void put(int id, String name) {
+        this.remove(id);
+        if (name == null) {
+            return;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        this.idToName.put(id, key);
+        this.nameToIds.computeIfAbsent(key, k -> new IntSet()).add(id);
+        // a trigram that occurs twice in the name is added once, since the id is already in its set
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            this.gramToIds.computeIfAbsent(key.substring(i, i + GRAM), g -> new IntSet()).add(id);
+        }
+    }
+
+    /**
+     * Removes the name of id.
+     * @param id An integer representing the id.
+     */
+    public void remove(int id) {
+        String key = this.idToName.remove(id);
+        if (key == null) {
+            return;
+        }
+        removeFrom(this.nameToIds, key, id);
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            removeFrom(this.gramToIds, key.substring(i, i + GRAM), id);
+        }
+    }
+
+    /**
+     * Finds the ids whose name starts with prefix.
+     * @param prefix The start of the names to look for.
+     * @param limit The largest number of ids returned.
+     * @param accept Tells whether an id may be returned.
+     * @return The accepted ids, in the order of their names and then of the ids.
+     */
+    public List<Integer> startingWith(String prefix, int limit, IntPredicate accept) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<Integer> res = new ArrayList<>();
+        for (Map.Entry<String, IntSet> entry : this.nameToIds.tailMap(key, true).entrySet()) {
+            if (res.size() >= limit || !entry.getKey().startsWith(key)) {
+                break;
+            }
+            addAccepted(entry.getValue().iterator(), null, key, limit, accept, res);
+        }
+        return res;
+    }
+
+    /**
+     * Finds the ids whose name contains text. Texts shorter than a trigram are looked for at the start of the names
+     * only.
+     * @param text The text to look for.
+     * @param limit The largest number of ids returned.
+     * @param accept Tells whether an id may be returned.
+     * @return The accepted ids, in increasing order.
+     */
+    public List<Integer> containing(String text, int limit, IntPredicate accept) {
+        String key = text.toLowerCase(Locale.ROOT);
+        if (key.length() < GRAM) {
+            return this.startingWith(key, limit, accept);
+        }
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<IntSet> postings = new ArrayList<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            IntSet ids = this.gramToIds.get(key.substring(i, i + GRAM));
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            postings.add(ids);
+        }
+        // walk the rarest trigram and check the others, so the fewest ids are looked at
+        postings.sort(Comparator.comparingInt(IntSet::size));
+        List<Integer> res = new ArrayList<>();
+        addAccepted(postings.get(0).iterator(), postings.subList(1, postings.size()), key, limit, accept, res);
+        return res;
+    }
+
+    /**
+     * Adds to res the ids of candidates that are in every one of others, whose name contains key and that are
+     * accepted, until res has limit ids.
+     */
+    private void addAccepted(PrimitiveIterator.OfInt candidates, List<IntSet> others, String key, int limit,
+                             IntPredicate accept, List<Integer> res) {
+        while (res.size() < limit && candidates.hasNext()) {
+            int id = candidates.nextInt();
+            if (others != null && !(containsAll(others, id) && this.idToName.get(id).contains(key))) {
+                continue;
+            }
+            if (accept.test(id)) {
+                res.add(id);
+            }
+        }
+    }
+
+    private static boolean containsAll(List<IntSet> sets, int id) {
+        for (IntSet set : sets) {
+            if (!set.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void removeFrom(Map<String, IntSet> map, String key, int id) {
+        IntSet ids = map.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            map.remove(key);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package use_case;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a listing, with the cursor the page after it is fetched with. Listings are ordered by id, and the
+ * cursor of a page is the id of the last item before it.
+ * @param <T> Type of the items of the page.
+ */
+public class Page<T> {
+    /**
+     * The cursor of the first page of a listing.
+     */
+    public static final int START = 0;
+
+    private final List<T> items;
+    private final int nextCursor;
+
+    /**
+     * Creates a Page.
+     * @param items The items of the page.
+     * @param nextCursor The cursor of the next page, or START if this is the last page.
+     */
+    public Page(List<T> items, int nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return The items of this page, in order.
+     */
+    public List<T> getItems() {
+        return this.items;
+    }
+
+    /**
+     * @return The cursor of the next page, or START if this is the last page.
+     */
+    public int getNextCursor() {
+        return this.nextCursor;
+    }
+
+    /**
+     * @return true iff there is a page after this one.
+     */
+    public boolean hasNext() {
+        return this.nextCursor != START;
+    }
+}
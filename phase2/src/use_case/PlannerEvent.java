@@ -0,0 +1,86 @@
+package use_case;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * A change made to a planner, as shown in the activity feeds of the friends of its owner.
+ */
+public class PlannerEvent {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("MM/dd HH:mm");
+
+    private final long sequence;
+    private final LocalDateTime time;
+    private final String ownerId;
+    private final int plannerId;
+    private final String plannerName;
+    private final String change;
+
+    /**
+     * Creates a PlannerEvent.
+     * @param sequence The number of the event; later events have larger numbers.
+     * @param ownerId The user ID of the owner of the planner.
+     * @param plannerId The id of the planner.
+     * @param plannerName The name of the planner.
+     * @param change A short description of the change, e.g., "edited 10:00: Gym".
+     */
+    public PlannerEvent(long sequence, String ownerId, int plannerId, String plannerName, String change) {
+        this.sequence = sequence;
+        this.time = LocalDateTime.now();
+        this.ownerId = ownerId;
+        this.plannerId = plannerId;
+        this.plannerName = plannerName;
+        this.change = change;
+    }
+
+    /**
+     * @return The number of the event; later events have larger numbers.
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * @return The time the change was made.
+     */
+    public LocalDateTime getTime() {
+        return this.time;
+    }
+
+    /**
+     * @return A String representing the user ID of the owner of the planner.
+     */
+    public String getOwnerId() {
+        return this.ownerId;
+    }
+
+    /**
+     * @return An integer representing the id of the planner.
+     */
+    public int getPlannerId() {
+        return this.plannerId;
+    }
+
+    /**
+     * @return A String representing the name of the planner.
+     */
+    public String getPlannerName() {
+        return this.plannerName;
+    }
+
+    /**
+     * @return A String describing the change.
+     */
+    public String getChange() {
+        return this.change;
+    }
+
+    /**
+     * @return A one-line String representation of the event.
+     */
+    @Override
+    public String toString() {
+        return "[" + this.time.format(TIME_FORMAT) + "] User " + this.ownerId + ", planner " + this.plannerId + " ("
+                + this.plannerName + "): " + this.change;
+    }
+}
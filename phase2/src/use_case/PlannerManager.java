@@ -1,6 +1,7 @@
 package use_case;
 
 import entity.DailyPlanner;
+import entity.IntSet;
 import entity.Planner;
 import entity.ProjectPlanner;
 import entity.ReminderPlanner;
@@ -9,28 +10,55 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntPredicate;
 
 /**
  * Stores and manages planners.
  */
 public class PlannerManager{
-    private Map<Integer, Planner> idToPlanner;
-    private int numPlannersLoaded;
-    private boolean hasInitialized = false;
+    private IIntObjectMap<Planner> idToPlanner;
+    private IdAllocator idAllocator = new IdAllocator();
+    private IRepository<Integer, Planner> repository;
+    // ids of the planners with each privacy status, built on first use so lazily loaded planners stay unloaded
+    private Map<String, IntSet> statusToIds;
+    // the words of the planners, built on first search for the same reason
+    private PlannerSearchIndex searchIndex;
 
     /**
      * Initializes the PlannerManager.
      */
     public PlannerManager() {
-        this.idToPlanner = new HashMap<>();
+        this.idToPlanner = new IntObjectMap<>();
     }
 
     /**
-     * Sets the numPlannersLoaded attribute.
-     * @param numPlannersLoaded Number of planners read in from external file at the start of the program.
+     * Sets the repository single planners are persisted to by persist.
+     * @param repository An IRepository object.
      */
-    public void setNumPlannersLoaded(int numPlannersLoaded){
-        this.numPlannersLoaded = numPlannersLoaded;
+    public void setRepository(IRepository<Integer, Planner> repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Persists the current state of the planner with id alone: stores it if it exists, removes it from
+     * the repository otherwise. Does nothing if no repository is set.
+     * @param id An integer representing the id of the planner.
+     * @return A boolean value representing whether the planner is successfully persisted.
+     */
+    public boolean persist(int id) {
+        if (this.repository == null) {
+            return true;
+        }
+        Planner planner = this.idToPlanner.get(id);
+        return planner == null ? this.repository.delete(id) : this.repository.put(id, planner);
+    }
+
+    /**
+     * Sets the allocator the ids of new planners are taken from.
+     * @param idAllocator An IdAllocator object, which has been advanced past the ids of the loaded planners.
+     */
+    public void setIdAllocator(IdAllocator idAllocator){
+        this.idAllocator = idAllocator;
     }
 
     /**
@@ -50,6 +78,12 @@ public class PlannerManager{
             return null;
         } else {
             this.idToPlanner.put(planner.getID(), planner);
+            if (this.statusToIds != null) {
+                this.idsWithStatus(planner.getPrivacyStatus()).add(planner.getID());
+            }
+            if (this.searchIndex != null) {
+                this.searchIndex.index(planner);
+            }
             return planner.getID();
         }
     }
@@ -65,33 +99,17 @@ public class PlannerManager{
      */
     private Planner getPlanner(String plannerType,
                                String plannerName, String firstInput, String secondInput, String thirdInput){
-        if (!hasInitialized){
-            switch (plannerType) {
-                case "daily":
-                    hasInitialized = true;
-                    return new DailyPlanner(numPlannersLoaded, plannerName, firstInput, secondInput, Integer.parseInt(thirdInput));
-                case "project":
-                    hasInitialized = true;
-                    return new ProjectPlanner(numPlannersLoaded, plannerName, firstInput, secondInput, thirdInput);
-                case "reminders":
-                    hasInitialized = true;
-                    return new ReminderPlanner(numPlannersLoaded, plannerName, firstInput, secondInput, thirdInput);
-                default:
-                    System.out.printf("Planner type %s is undefined for this program.", plannerType);
-                    return null;
-            }
-        } else {
-            switch (plannerType) {
-                case "daily":
-                    return new DailyPlanner(plannerName, firstInput, secondInput, Integer.parseInt(thirdInput));
-                case "project":
-                    return new ProjectPlanner(plannerName, firstInput, secondInput, thirdInput);
-                case "reminders":
-                    return new ReminderPlanner(plannerName, firstInput, secondInput, thirdInput);
-                default:
-                    System.out.printf("Planner type %s is undefined for this program.", plannerType);
-                    return null;
-            }
+        switch (plannerType) {
+            case "daily":
+                return new DailyPlanner(this.idAllocator.nextId(), plannerName, firstInput, secondInput,
+                        Integer.parseInt(thirdInput));
+            case "project":
+                return new ProjectPlanner(this.idAllocator.nextId(), plannerName, firstInput, secondInput, thirdInput);
+            case "reminders":
+                return new ReminderPlanner(this.idAllocator.nextId(), plannerName, firstInput, secondInput, thirdInput);
+            default:
+                System.out.printf("Planner type %s is undefined for this program.", plannerType);
+                return null;
         }
     }
 
@@ -104,10 +122,13 @@ public class PlannerManager{
 
     /**
      * Sets the idToPlanner attribute.
-     * @param idToPlanner A HashMap object we want to set the idToPlanner attribute to.
+     * @param idToPlanner An IIntObjectMap object we want to set the idToPlanner attribute to. It may load planners
+     *                    lazily.
      */
-    public void setIdToPlanner(HashMap<Integer, Planner> idToPlanner) {
+    public void setIdToPlanner(IIntObjectMap<Planner> idToPlanner) {
         this.idToPlanner = idToPlanner;
+        this.statusToIds = null;
+        this.searchIndex = null;
     }
 
     /**
@@ -117,7 +138,12 @@ public class PlannerManager{
      * @return true iff is edit is successful.
      */
     public boolean edit(int id, String timeOrName, String agenda){
-        return this.findPlanner(id).edit(timeOrName, agenda);
+        Planner planner = this.findPlanner(id);
+        boolean flag = planner.edit(timeOrName, agenda);
+        if (flag && this.searchIndex != null) {
+            this.searchIndex.index(planner);
+        }
+        return flag;
     }
 
     /**
@@ -135,7 +161,14 @@ public class PlannerManager{
      * @return true iff the privacy status is successfully changed to status.
      */
     public boolean changePrivacyStatus(int id, String status){
-        return this.findPlanner(id).ChangePrivacyStatus(status);
+        Planner planner = this.findPlanner(id);
+        String oldStatus = planner.getPrivacyStatus();
+        boolean flag = planner.ChangePrivacyStatus(status);
+        if (flag && this.statusToIds != null) {
+            this.idsWithStatus(oldStatus).remove(id);
+            this.idsWithStatus(status).add(id);
+        }
+        return flag;
     }
 
     /**
@@ -152,7 +185,13 @@ public class PlannerManager{
      */
     public Boolean deletePlanner(int id) {
         if (this.idToPlanner.containsKey(id)){
-            this.idToPlanner.remove(id);
+            Planner planner = this.idToPlanner.remove(id);
+            if (this.statusToIds != null) {
+                this.idsWithStatus(planner.getPrivacyStatus()).remove(id);
+            }
+            if (this.searchIndex != null) {
+                this.searchIndex.remove(id);
+            }
             return true;
         }
         else{
@@ -161,16 +200,91 @@ public class PlannerManager{
     }
 
     /**
-     * @return List containing ID's of all public planners.
+     * @return IntSet containing ID's of all public planners.
+     */
+    public IntSet getPublicPlanners(){
+        return new IntSet(this.idsWithStatus("public"));
+    }
+
+    /**
+     * Checks whether the planner with id is public.
+     * @param id The integer id of the planner.
+     * @return true iff the planner with id exists and is public.
+     */
+    public boolean isPublic(int id){
+        return this.idsWithStatus("public").contains(id);
+    }
+
+    /**
+     * Checks whether the planner with id is shared with friends only.
+     * @param id The integer id of the planner.
+     * @return true iff the planner with id exists and is friends-only.
+     */
+    public boolean isFriendsOnly(int id){
+        return this.idsWithStatus("friends-only").contains(id);
+    }
+
+    /**
+     * Returns the ids of the planners with status, building the index of every status first if needed.
+     * @param status A privacy status.
+     * @return The IntSet of the ids, which is part of the index.
+     */
+    private IntSet idsWithStatus(String status){
+        if (this.statusToIds == null) {
+            Map<String, IntSet> index = new HashMap<>();
+            for (Planner planner : this.idToPlanner.values()) {
+                index.computeIfAbsent(planner.getPrivacyStatus(), s -> new IntSet()).add(planner.getID());
+            }
+            this.statusToIds = index;
+        }
+        return this.statusToIds.computeIfAbsent(status, s -> new IntSet());
+    }
+
+    /**
+     * Finds the planners whose name or contents contain any word of query, building the search index first if needed.
+     * @param query The words to look for.
+     * @param limit The largest number of ids returned.
+     * @param visible Tells whether the planner with an id may be returned.
+     * @return The ids of the limit best matching visible planners, best first.
      */
-    public List<Integer> getPublicPlanners(){
-        List<Integer> publicPlanners = new ArrayList<>();
-        for (Planner planner : this.idToPlanner.values()) {
-            if (planner.getPrivacyStatus().equals("public")){
-                publicPlanners.add(planner.getID());
+    public List<Integer> search(String query, int limit, IntPredicate visible){
+        if (this.searchIndex == null) {
+            PlannerSearchIndex index = new PlannerSearchIndex();
+            for (Planner planner : this.idToPlanner.values()) {
+                index.index(planner);
             }
+            this.searchIndex = index;
         }
-        return publicPlanners;
+        return this.searchIndex.search(query, limit, visible);
+    }
+
+    /**
+     * Returns a page of the planners with the given ids, in the order of their ids.
+     * @param plannerIds The ids of the planners to list.
+     * @param cursor The cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize The largest number of planners in the page, which must be positive.
+     * @return The page of the summaries of the planners.
+     */
+    public Page<PlannerSummary> getPlannerPage(IntSet plannerIds, int cursor, int pageSize){
+        int[] ids = plannerIds.toArray(cursor, pageSize + 1);
+        List<PlannerSummary> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(ids.length, pageSize); i++) {
+            Planner planner = this.findPlanner(ids[i]);
+            if (planner != null) {
+                items.add(new PlannerSummary(planner));
+            }
+        }
+        return new Page<>(items, ids.length > pageSize ? ids[pageSize - 1] : Page.START);
+    }
+
+    /**
+     * Returns a page of the public planners, in the order of their ids.
+     * @param cursor The cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize The largest number of planners in the page, which must be positive.
+     * @return The page of the summaries of the planners.
+     */
+    public Page<PlannerSummary> getPublicPlannerPage(int cursor, int pageSize){
+        return this.getPlannerPage(this.idsWithStatus("public"), cursor, pageSize);
     }
 
     /**
@@ -212,7 +326,12 @@ public class PlannerManager{
      * @return true if the planner is correctly added.
      */
     public boolean add(int id, String i, String j) {
-        return this.findPlanner(id).add(i, j);
+        Planner planner = this.findPlanner(id);
+        boolean flag = planner.add(i, j);
+        if (flag && this.searchIndex != null) {
+            this.searchIndex.index(planner);
+        }
+        return flag;
     }
 
     /**
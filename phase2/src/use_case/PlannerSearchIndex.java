@@ -0,0 +1,154 @@
+package use_case;
+
+import entity.IntSet;
+import entity.Planner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
+/**
+ * An inverted index from words to the ids of the planners that contain them, so planners can be searched without
+ * scanning every one of them. The words of a planner are the runs of letters and digits of its searchable text, in
+ * lower case. Results are ranked by tf-idf: words that occur often in a planner but in few planners count the most.
+ */
+public class PlannerSearchIndex {
+    private final Map<String, IntSet> postings = new HashMap<>();
+    // how often each word occurs in each indexed planner, used to rank results and to unindex planners
+    private final IntObjectMap<Map<String, Integer>> wordCounts = new IntObjectMap<>();
+
+    /**
+     * Indexes planner, replacing what was indexed for it before.
+     * @param planner The planner to index.
+     */
+    public void index(Planner planner) {
+        int id = planner.getID();
+        this.remove(id);
+        Map<String, Integer> counts = new HashMap<>();
+        for (String text : planner.getSearchableText()) {
+            for (String word : words(text)) {
+                counts.merge(word, 1, Integer::sum);
+            }
+        }
+        for (String word : counts.keySet()) {
+            this.postings.computeIfAbsent(word, w -> new IntSet()).add(id);
+        }
+        this.wordCounts.put(id, counts);
+    }
+
+    /**
+     * Removes the planner with id from the index.
+     * @param id An integer representing the id of the planner.
+     */
+    public void remove(int id) {
+        Map<String, Integer> counts = this.wordCounts.remove(id);
+        if (counts == null) {
+            return;
+        }
+        for (String word : counts.keySet()) {
+            IntSet ids = this.postings.get(word);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                this.postings.remove(word);
+            }
+        }
+    }
+
+    /**
+     * Finds the planners that contain any word of query.
+     * @param query The words to look for.
+     * @param limit The largest number of ids returned.
+     * @param visible Tells whether the planner with an id may be returned.
+     * @return The ids of the limit best matching visible planners, best first. Ties are ordered by id.
+     */
+    public List<Integer> search(String query, int limit, IntPredicate visible) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        IntObjectMap<double[]> scores = new IntObjectMap<>();
+        for (String word : new LinkedHashSet<>(words(query))) {
+            IntSet ids = this.postings.get(word);
+            if (ids == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (double) this.wordCounts.size() / ids.size());
+            ids.forEach(id -> {
+                double[] score = scores.get(id);
+                if (score == null) {
+                    if (!visible.test(id)) {
+                        return;
+                    }
+                    score = new double[1];
+                    scores.put(id, score);
+                }
+                score[0] += (1 + Math.log(this.wordCounts.get(id).get(word))) * idf;
+            });
+        }
+        // a heap of the best hits so far, whose root is the worst of them
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, Math.max(1, scores.size())));
+        for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+            Hit hit = new Hit(entry.getKey(), entry.getValue()[0]);
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (hit.compareTo(best.peek()) > 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        Integer[] ids = new Integer[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = best.poll().id;
+        }
+        List<Integer> result = new ArrayList<>(ids.length);
+        Collections.addAll(result, ids);
+        return result;
+    }
+
+    /**
+     * Splits text into its words.
+     * @param text The text to split.
+     * @return The runs of letters and digits of text, in lower case and in order.
+     */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * A scored planner. Hits compare by score, and a smaller id is better on a tie.
+     */
+    private static class Hit implements Comparable<Hit> {
+        private final int id;
+        private final double score;
+
+        private Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Hit other) {
+            int byScore = Double.compare(this.score, other.score);
+            return byScore != 0 ? byScore : Integer.compare(other.id, this.id);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package use_case;
+
+import entity.Planner;
+
+/**
+ * The information of a planner shown in listings.
+ */
+public class PlannerSummary {
+    private final int id;
+    private final String name;
+    private final String type;
+    private final String privacyStatus;
+    private final int numAgendas;
+
+    /**
+     * Creates the summary of planner.
+     * @param planner The planner to summarize.
+     */
+    public PlannerSummary(Planner planner) {
+        this.id = planner.getID();
+        this.name = planner.getPlannerName();
+        this.type = planner.getType();
+        this.privacyStatus = planner.getPrivacyStatus();
+        this.numAgendas = planner.getNumAgendas();
+    }
+
+    /**
+     * @return An integer representing the id of the planner.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * @return A String representing the name of the planner.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return A String representing the type of the planner.
+     */
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * @return A String representing the privacy status of the planner.
+     */
+    public String getPrivacyStatus() {
+        return this.privacyStatus;
+    }
+
+    /**
+     * @return An integer representing the number of agendas of the planner.
+     */
+    public int getNumAgendas() {
+        return this.numAgendas;
+    }
+
+    /**
+     * @return A one-line String representation of the planner.
+     */
+    @Override
+    public String toString() {
+        return "ID: " + this.id + ", " + this.name + " (" + this.type + ", " + this.privacyStatus + "), "
+                + this.numAgendas + " agendas";
+    }
+}
@@ -0,0 +1,214 @@
+package use_case;
+
+import entity.Account;
+import entity.IntSet;
+import entity.UserAccount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Decides which planners an account may see. Everybody may see public planners, a user may see their own planners
+ * and the friends-only planners of the accounts at most hops friendships away, and an admin may see every planner.
+ *
+ * The friends-only planners each viewer may see are cached per viewer, since finding them walks the viewer's friend
+ * circle. A cached set is dropped only when something it depends on changes: a friendship near the viewer, the
+ * planners of an account in the viewer's circle, or the privacy status of a planner owned in the viewer's circle.
+ */
+public class PlannerVisibilityManager {
+    private final AccountManager accManager;
+    private final AccountPlannerOptionManager accPlanner;
+    private final FriendGraph friendGraph;
+    private final int hops;
+
+    private PlannerManager plannerManager;
+    // The friends-only planners of other accounts that each viewer may see, keyed by the dense ID of the viewer.
+    private final IntObjectMap<IntSet> sharedByViewer = new IntObjectMap<>();
+
+    /**
+     * Constructs a PlannerVisibilityManager. Call setPlannerManager before using it.
+     * @param accManager The AccountManager that stores the accounts.
+     * @param accPlanner The AccountPlannerOptionManager that knows the planners of the accounts.
+     * @param friendGraph The FriendGraph the friendships of the accounts are kept in.
+     * @param hops The largest number of friendships between the owner of a friends-only planner and its viewers.
+     */
+    public PlannerVisibilityManager(AccountManager accManager, AccountPlannerOptionManager accPlanner,
+                                    FriendGraph friendGraph, int hops) {
+        this.accManager = accManager;
+        this.accPlanner = accPlanner;
+        this.friendGraph = friendGraph;
+        this.hops = hops;
+    }
+
+    /**
+     * Sets the PlannerManager that stores the planners and their privacy statuses.
+     * @param plannerManager A PlannerManager object.
+     */
+    public void setPlannerManager(PlannerManager plannerManager) {
+        this.plannerManager = plannerManager;
+        this.clear();
+    }
+
+    /**
+     * Checks whether a viewer may see a planner.
+     * @param viewerId The user ID or email of the viewer, or null for nobody logged in.
+     * @param plannerId The id of the planner.
+     * @return true iff the planner exists and the viewer may see it.
+     */
+    public boolean canSee(String viewerId, int plannerId) {
+        if (this.plannerManager.isPublic(plannerId)) {
+            return true;
+        }
+        Account viewer = viewerId == null ? null : this.accManager.findAccount(viewerId);
+        if (viewer == null) {
+            return false;
+        } else if (viewer.getAccountType().equals("admin")) {
+            return this.plannerManager.findPlanner(plannerId) != null;
+        } else if (viewer instanceof UserAccount && ((UserAccount) viewer).getPlanner().contains(plannerId)) {
+            return true;
+        }
+        return this.sharedWith(viewer).contains(plannerId);
+    }
+
+    /**
+     * @param plannerId The id of a planner.
+     * @return true iff no planner with plannerId is stored, e.g., because it has been deleted.
+     */
+    public boolean isDeleted(int plannerId) {
+        return this.plannerManager.findPlanner(plannerId) == null;
+    }
+
+    /**
+     * Checks whether the friends of the owner of a planner may see it, whoever the owner is.
+     * @param plannerId The id of the planner.
+     * @return true iff the planner is public, or friends-only and shared with friends one friendship away.
+     */
+    public boolean isSharedWithFriends(int plannerId) {
+        return this.plannerManager.isPublic(plannerId)
+                || (this.hops > 0 && this.plannerManager.isFriendsOnly(plannerId));
+    }
+
+    /**
+     * Lists the planners a viewer may see.
+     * @param viewerId The user ID or email of the viewer, or null for nobody logged in.
+     * @return A new IntSet with the ids of the planners.
+     */
+    public IntSet getVisiblePlanners(String viewerId) {
+        IntSet visible = this.plannerManager.getPublicPlanners();
+        Account viewer = viewerId == null ? null : this.accManager.findAccount(viewerId);
+        if (viewer != null) {
+            this.accPlanner.getPlanners(viewerId).forEach(visible::add);
+            this.sharedWith(viewer).forEach(visible::add);
+        }
+        return visible;
+    }
+
+    /**
+     * Lists the friends-only planners of other accounts that a viewer may see.
+     * @param viewerId The user ID or email of the viewer.
+     * @return The IntSet of the ids of the planners, which is part of the cache and must not be modified.
+     */
+    public IntSet getSharedPlanners(String viewerId) {
+        Account viewer = this.accManager.findAccount(viewerId);
+        return viewer == null ? new IntSet() : this.sharedWith(viewer);
+    }
+
+    /**
+     * Call before two accounts become friends or stop being friends. The viewers at most hops - 1 friendships away
+     * from either account are the only ones whose friend circle may change.
+     * @param selfId The user ID or email of one account.
+     * @param friendId The user ID or email of the other account.
+     */
+    public void friendshipChanging(String selfId, String friendId) {
+        int self = this.accManager.getId(selfId);
+        int friend = this.accManager.getId(friendId);
+        this.evictIf(viewer -> this.friendGraph.isWithinHops(viewer, self, this.hops - 1)
+                || this.friendGraph.isWithinHops(viewer, friend, this.hops - 1));
+    }
+
+    /**
+     * Call after a planner is given to an account, or taken from it.
+     * @param ownerId The user ID or email of the account.
+     * @param plannerId The id of the planner.
+     */
+    public void ownershipChanged(String ownerId, int plannerId) {
+        if (this.plannerManager.isFriendsOnly(plannerId)) {
+            this.evictCircleOf(this.accManager.getId(ownerId));
+        }
+    }
+
+    /**
+     * Call after the privacy status of a planner changes.
+     * @param plannerId The id of the planner.
+     * @param oldStatus The privacy status the planner had before.
+     */
+    public void privacyStatusChanged(int plannerId, String oldStatus) {
+        if (!"friends-only".equals(oldStatus) && !this.plannerManager.isFriendsOnly(plannerId)) {
+            return;
+        }
+        String ownerId = this.accPlanner.getOwner(plannerId);
+        if (ownerId != null) {
+            this.evictCircleOf(this.accManager.getId(ownerId));
+        }
+    }
+
+    /**
+     * Call before an account and its friendships are removed.
+     * @param account The account being removed.
+     */
+    public void accountRemoving(Account account) {
+        this.evictCircleOf(account.getId());
+        this.sharedByViewer.remove(account.getId());
+    }
+
+    /**
+     * Drops every cached set, e.g., after the data is loaded again.
+     */
+    public void clear() {
+        this.sharedByViewer.clear();
+    }
+
+    /**
+     * @return The friends-only planners of the accounts in the friend circle of viewer, found on the first request.
+     */
+    private IntSet sharedWith(Account viewer) {
+        IntSet shared = this.sharedByViewer.get(viewer.getId());
+        if (shared == null) {
+            IntSet res = new IntSet();
+            for (int id : this.friendGraph.getNeighbourhood(viewer.getId(), this.hops)) {
+                Account owner = this.accManager.findAccount(id);
+                if (owner instanceof UserAccount) {
+                    ((UserAccount) owner).getPlanner().forEach(plannerId -> {
+                        if (this.plannerManager.isFriendsOnly(plannerId)) {
+                            res.add(plannerId);
+                        }
+                    });
+                }
+            }
+            shared = res;
+            this.sharedByViewer.put(viewer.getId(), shared);
+        }
+        return shared;
+    }
+
+    private void evictCircleOf(int owner) {
+        this.evictIf(viewer -> this.friendGraph.isWithinHops(viewer, owner, this.hops));
+    }
+
+    /**
+     * Drops the cached sets of the viewers that test accepts. Only viewers with a cached set are tested, so a change
+     * costs nothing while few viewers have asked.
+     */
+    private void evictIf(IntPredicate test) {
+        List<Integer> evicted = new ArrayList<>();
+        for (Integer viewer : this.sharedByViewer.keySet()) {
+            if (test.test(viewer)) {
+                evicted.add(viewer);
+            }
+        }
+        for (Integer viewer : evicted) {
+            this.sharedByViewer.remove(viewer.intValue());
+        }
+    }
+}
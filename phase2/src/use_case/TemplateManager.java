@@ -1,44 +1,59 @@
 package use_case;
 
 import entity.DailyTemplate;
+import entity.IntSet;
 import entity.ProjectTemplate;
 import entity.RemindersTemplate;
 import entity.Template;
 import java.io.*;
 import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
  * Stores and manages Templates.
  */
 public class TemplateManager implements Serializable {
 
-    private final Map<Integer, Template> templates;  // a mapping of template ID to Template
-    private int numTemplatesLoaded; // number of templates read in from external file at the start of the program
-    private boolean hasInitialized = false; // flag indicating if the templates that are read in from external file
-                                            // have been added to the TemplateManager
+    private final IntObjectMap<Template> templates;  // a mapping of template ID to Template
+    private final IntObjectMap<Template> publishedTemplates;  // the published templates among templates
+    private final IntSet templateIds;  // the ids of templates in order, to list them a page at a time
+    private final IntSet publishedIds;  // the ids of publishedTemplates in order
+    private transient IdAllocator idAllocator = new IdAllocator();  // hands out the ids of new templates
+    private transient NameIndex nameIndex;  // template names for type-ahead lookups, built on first lookup
 
     /**
      * Creates a new empty TemplateManager.
      */
     public TemplateManager(){
-        templates = new HashMap<>();
+        templates = new IntObjectMap<>();
+        publishedTemplates = new IntObjectMap<>();
+        templateIds = new IntSet();
+        publishedIds = new IntSet();
     }
 
     /**
-     * Sets the numTemplatesLoaded attribute.
-     * @param numTemplatesLoaded Number of templates read in from external file at the start of the program.
+     * Sets the allocator the ids of new templates are taken from.
+     * @param idAllocator An IdAllocator object, which has been advanced past the ids of the loaded templates.
      */
-    public void setNumTemplatesLoaded(int numTemplatesLoaded) {
-        this.numTemplatesLoaded = numTemplatesLoaded;
+    public void setIdAllocator(IdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
     }
 
     /**
      * Gets the Map of Template objects stored in TemplateManager, keys are Template ID's, values are the Template
      * object corresponding to the ID.
-     * @return Map of Template objects stored in TemplateManager.
+     * @return A read-only view of the Map of Template objects stored in TemplateManager.
      */
     public Map<Integer, Template> getTemplates() {
-        return templates;
+        return Collections.unmodifiableMap(templates);
+    }
+
+    /**
+     * @param id An integer representing the id of the template.
+     * @return true iff a template with id is stored in TemplateManager.
+     */
+    public boolean hasTemplate(int id) {
+        return templates.containsKey(id);
     }
 
     /**
@@ -48,6 +63,11 @@ public class TemplateManager implements Serializable {
     public void addTemplate(Template t){
         // Add template <t> to the collection of templates stored in this TemplateManager object.
         templates.put(t.getId(), t);
+        templateIds.add(t.getId());
+        this.updatePublished(t);
+        if (this.nameIndex != null) {
+            this.nameIndex.put(t.getId(), t.getName());
+        }
     }
 
     /**
@@ -90,39 +110,19 @@ public class TemplateManager implements Serializable {
                                 String firstPlannerPrompt,
                                 String secondPlannerPrompt,
                                 String thirdPlannerPrompt){
-        if (!hasInitialized){
-            switch (templateType) {
-                case "daily":
-                    hasInitialized = true;
-                    return new DailyTemplate(numTemplatesLoaded, templateName, plannerNamePrompt, firstPlannerPrompt,
-                            secondPlannerPrompt, thirdPlannerPrompt);
-                case "project":
-                    hasInitialized = true;
-                    return new ProjectTemplate(numTemplatesLoaded, templateName, plannerNamePrompt, firstPlannerPrompt,
-                            secondPlannerPrompt, thirdPlannerPrompt);
-                case "reminders":
-                    hasInitialized = true;
-                    return new RemindersTemplate(numTemplatesLoaded, templateName, plannerNamePrompt, firstPlannerPrompt,
-                            secondPlannerPrompt, thirdPlannerPrompt);
-                default:
-                    System.out.printf("Template type %s is undefined for this program.", templateType);
-                    return null;
-            }
-        } else {
-            switch (templateType) {
-                case "daily":
-                    return new DailyTemplate(templateName, plannerNamePrompt, firstPlannerPrompt,
-                            secondPlannerPrompt, thirdPlannerPrompt);
-                case "project":
-                    return new ProjectTemplate(templateName, plannerNamePrompt, firstPlannerPrompt,
-                            secondPlannerPrompt, thirdPlannerPrompt);
-                case "reminders":
-                    return new RemindersTemplate(templateName, plannerNamePrompt, firstPlannerPrompt,
-                            secondPlannerPrompt, thirdPlannerPrompt);
-                default:
-                    System.out.printf("Template type %s is undefined for this program.", templateType);
-                    return null;
-            }
+        switch (templateType) {
+            case "daily":
+                return new DailyTemplate(this.idAllocator.nextId(), templateName, plannerNamePrompt,
+                        firstPlannerPrompt, secondPlannerPrompt, thirdPlannerPrompt);
+            case "project":
+                return new ProjectTemplate(this.idAllocator.nextId(), templateName, plannerNamePrompt,
+                        firstPlannerPrompt, secondPlannerPrompt, thirdPlannerPrompt);
+            case "reminders":
+                return new RemindersTemplate(this.idAllocator.nextId(), templateName, plannerNamePrompt,
+                        firstPlannerPrompt, secondPlannerPrompt, thirdPlannerPrompt);
+            default:
+                System.out.printf("Template type %s is undefined for this program.", templateType);
+                return null;
         }
     }
 
@@ -132,7 +132,33 @@ public class TemplateManager implements Serializable {
      * @param newName New value to set the name of the Template to.
      */
     public void setTemplateName(int ID, String newName) {
-        this.getTemplates().get(ID).setName(newName);
+        this.templates.get(ID).setName(newName);
+        if (this.nameIndex != null) {
+            this.nameIndex.put(ID, newName);
+        }
+    }
+
+    /**
+     * Finds templates as the user types: the ones whose name starts with text, then the ones whose name contains it.
+     * @param text The text the user has typed so far.
+     * @param limit The largest number of templates returned.
+     * @param publishedTemplatesOnly Boolean indicating whether to find only published templates.
+     * @return The ids of the templates found, best first.
+     */
+    public List<Integer> lookUpTemplates(String text, int limit, boolean publishedTemplatesOnly) {
+        if (this.nameIndex == null) {
+            NameIndex index = new NameIndex();
+            for (Template template : this.templates.values()) {
+                index.put(template.getId(), template.getName());
+            }
+            this.nameIndex = index;
+        }
+        Set<Integer> found = new LinkedHashSet<>();
+        IntPredicate accept = id -> !found.contains(id)
+                && (!publishedTemplatesOnly || this.publishedTemplates.containsKey(id));
+        found.addAll(this.nameIndex.startingWith(text, limit, accept));
+        found.addAll(this.nameIndex.containing(text, limit - found.size(), accept));
+        return new ArrayList<>(found);
     }
 
     /**
@@ -141,24 +167,17 @@ public class TemplateManager implements Serializable {
      * @return List that contains prompts.
      */
     public List<String> retrievePrompts(int ID) {
-        return this.getTemplates().get(ID).retrievePrompts();
+        return this.templates.get(ID).retrievePrompts();
     }
 
     /**
      * Retrieves and returns all published templates stored in this TemplateManager (i.e., templates that are viewable
      * to all users).
      * A template is published if their publishedStatus is true.
-     * @return Map<Integer, Template> which contains all published templates.
+     * @return A read-only view of the Map<Integer, Template> which contains all published templates.
      */
     public Map<Integer, Template> retrievePublishedTemplates() {
-        Map<Integer, Template> publishedTemplates = new HashMap<>();
-        for (Map.Entry<Integer, Template> items: this.getTemplates().entrySet()) {
-            Template value = items.getValue();
-            if (value.getPublishedStatus()) {
-                publishedTemplates.put(value.getId(), value);
-            }
-        }
-        return publishedTemplates;
+        return Collections.unmodifiableMap(publishedTemplates);
     }
 
     /**
@@ -172,7 +191,7 @@ public class TemplateManager implements Serializable {
      * @return Number of published template stored in the TemplateManager (i.e., templates that are viewable to all users).
      */
     public int numberOfPublishedTemplates() {
-        return retrievePublishedTemplates().size();
+        return publishedTemplates.size();
     }
 
     /** Returns a string representation of the TemplateManager object, with the option of:
@@ -192,8 +211,7 @@ public class TemplateManager implements Serializable {
 
         // Traverse through all key-value pairs in templates, and add those templates' string representation
         // to stringRep.
-        for (Map.Entry<Integer, Template> items: this.getTemplates().entrySet()){
-            Template value = items.getValue();
+        for (Template value: templates.values()){
 
             if (viewOption.equals("Detail")){
                 stringRep.append(value.toString());
@@ -224,8 +242,7 @@ public class TemplateManager implements Serializable {
 
         // Traverse through all key-value pairs in templates, and add those templates' string representation
         // to stringRep.
-        for (Map.Entry<Integer, Template> items: retrievePublishedTemplates().entrySet()){
-            Template value = items.getValue();
+        for (Template value: publishedTemplates.values()){
 
             if (viewOption.equals("Detail")){
                 stringRep.append(value.toString());
@@ -238,6 +255,22 @@ public class TemplateManager implements Serializable {
         return stringRep.toString();
     }
 
+    /**
+     * Returns a page of the templates stored in this TemplateManager, in the order of their ids.
+     * @param cursor The cursor of the page: Page.START, or the next cursor of the page before.
+     * @param pageSize The largest number of templates in the page, which must be positive.
+     * @param publishedTemplatesOnly Boolean indicating whether to list only published templates.
+     * @return The page of the summaries of the templates.
+     */
+    public Page<TemplateSummary> getTemplatePage(int cursor, int pageSize, boolean publishedTemplatesOnly) {
+        int[] ids = (publishedTemplatesOnly ? this.publishedIds : this.templateIds).toArray(cursor, pageSize + 1);
+        List<TemplateSummary> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(ids.length, pageSize); i++) {
+            items.add(new TemplateSummary(this.templates.get(ids[i])));
+        }
+        return new Page<>(items, ids.length > pageSize ? ids[pageSize - 1] : Page.START);
+    }
+
     /**
      * Returns detailed string representation of a Template with ID that's stored in TemplateManager.
      * @param ID ID of the Template.
@@ -245,7 +278,7 @@ public class TemplateManager implements Serializable {
      * detailed representation of the Template, including name, type, number of prompts, and what those prompts are.
      */
     public String detailViewTemplate(int ID){
-        return this.getTemplates().get(ID).toString();
+        return this.templates.get(ID).toString();
     }
 
     /**
@@ -268,8 +301,7 @@ public class TemplateManager implements Serializable {
      * @return A String representing the Type of the template.
      */
     public String getType(int id) {
-        Map<Integer, Template> hm = this.getTemplates();
-        return hm.get(id).isType();
+        return this.templates.get(id).isType();
     }
 
     /**
@@ -277,7 +309,29 @@ public class TemplateManager implements Serializable {
      * @param id An integer representing the id of the template.
      */
     public void switchPublishedStatus(int id) {
-        Map<Integer, Template> hm = this.getTemplates();
-        hm.get(id).switchPublishedStatus();
+        Template template = this.templates.get(id);
+        template.switchPublishedStatus();
+        this.updatePublished(template);
+    }
+
+    /**
+     * Sets the published status of a given template.
+     * @param id An integer representing the id of the template.
+     * @param newStatus A new published status for the template.
+     */
+    public void setPublishedStatus(int id, boolean newStatus) {
+        Template template = this.templates.get(id);
+        template.setPublishedStatus(newStatus);
+        this.updatePublished(template);
+    }
+
+    private void updatePublished(Template template) {
+        if (template.getPublishedStatus()) {
+            this.publishedTemplates.put(template.getId(), template);
+            this.publishedIds.add(template.getId());
+        } else {
+            this.publishedTemplates.remove(template.getId());
+            this.publishedIds.remove(template.getId());
+        }
     }
 }
@@ -0,0 +1,70 @@
+package use_case;
+
+import entity.Template;
+
+/**
+ * The information of a template shown in listings.
+ */
+public class TemplateSummary {
+    private final int id;
+    private final String name;
+    private final String type;
+    private final boolean published;
+    private final int numPrompts;
+
+    /**
+     * Creates the summary of template.
+     * @param template The template to summarize.
+     */
+    public TemplateSummary(Template template) {
+        this.id = template.getId();
+        this.name = template.getName();
+        this.type = template.isType();
+        this.published = template.getPublishedStatus();
+        this.numPrompts = template.numPrompts();
+    }
+
+    /**
+     * @return An integer representing the id of the template.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * @return A String representing the name of the template.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return A String representing the type of the template.
+     */
+    public String getType() {
+        return this.type;
+    }
+
+    /**
+     * @return true iff the template is published.
+     */
+    public boolean getPublishedStatus() {
+        return this.published;
+    }
+
+    /**
+     * @return An integer representing the number of prompts of the template.
+     */
+    public int getNumPrompts() {
+        return this.numPrompts;
+    }
+
+    /**
+     * @return A one-line String representation of the template.
+     */
+    @Override
+    public String toString() {
+        return "ID: " + this.id + ", " + this.name + " (" + this.type + (this.published ? ", published" : "")
+                + "), " + this.numPrompts + " prompts";
+    }
+}
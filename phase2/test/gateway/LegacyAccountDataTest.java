@@ -0,0 +1,67 @@
+package gateway;
+
+import entity.Account;
+import entity.UserAccount;
+import use_case.AccountManager;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks that accounts written with Java serialization by the version before the compact formats can still be read.
+ * The fixture holds two user accounts, ann@mail.com with planner "1" and bob@mail.com with planner "2", who are
+ * friends.
+ * Usage: LegacyAccountDataTest [path of the fixture], run from the phase2 folder by default.
+ */
+public class LegacyAccountDataTest {
+    public static void main(String[] args) throws Exception {
+        String fixturePath = args.length > 0 ? args[0] : "test/fixtures/baselineAccounts.ser";
+        byte[] bytes = Files.readAllBytes(Paths.get(fixturePath));
+
+        AccountGateway gateway = new AccountGateway(new AccountManager());
+        HashMap<String, Account> accounts = gateway.decode(fixturePath, bytes);
+        check(accounts.size() == 2, "2 accounts are read, not " + accounts.size());
+
+        UserAccount ann = findByEmail(accounts, "ann@mail.com");
+        UserAccount bob = findByEmail(accounts, "bob@mail.com");
+        check("ann".equals(ann.getUserName()), "the user name of ann is read");
+        check(ann.getPlanner().size() == 1 && ann.getPlanner().contains(1), "ann has planner 1");
+        check(bob.getPlanner().size() == 1 && bob.getPlanner().contains(2), "bob has planner 2");
+        check(ann.getTrashPlanner().size() == 0, "the trash bin of ann is empty");
+        check(ann.getId() == 0, "accounts without a dense ID get one when they are added, not when read");
+
+        // The friends kept in the accounts are handed on to FriendGraphGateway.
+        AccountMapCodec codec = new AccountMapCodec();
+        for (Account account : accounts.values()) {
+            codec.rememberLegacyFriendIds(account);
+        }
+        Map<String, List<String>> friendIds = codec.takeLegacyFriendIds();
+        check(Collections.singletonList(bob.getUserId()).equals(friendIds.get(ann.getUserId())),
+                "bob is a friend of ann");
+        check(Collections.singletonList(ann.getUserId()).equals(friendIds.get(bob.getUserId())),
+                "ann is a friend of bob");
+        check(ann.takeLegacyFriendIds().isEmpty(), "legacy friends are only handed on once");
+
+        System.out.println("LegacyAccountDataTest passed.");
+    }
+
+    private static UserAccount findByEmail(HashMap<String, Account> accounts, String email) {
+        for (Account account : accounts.values()) {
+            if (email.equals(account.getEmail())) {
+                check(account instanceof UserAccount, email + " is read as a UserAccount");
+                return (UserAccount) account;
+            }
+        }
+        throw new AssertionError(email + " is not read");
+    }
+
+    private static void check(boolean condition, String expectation) {
+        if (!condition) {
+            throw new AssertionError("Expected: " + expectation);
+        }
+    }
+}